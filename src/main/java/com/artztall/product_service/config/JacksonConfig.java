@@ -0,0 +1,28 @@
+package com.artztall.product_service.config;
+
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Attaches the sparse-fieldset filter to {@link ProductResponse}. Without a filter registered for the id,
+     * every property is written, so only responses that set one (see ProductFieldsResponseAdvice) are trimmed.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer productFieldsFilter() {
+        return builder -> builder
+                .mixIn(ProductResponse.class, ProductResponseFilterMixin.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(ProductFields.FILTER_ID)
+    abstract static class ProductResponseFilterMixin {
+    }
+}
@@ -0,0 +1,20 @@
+package com.artztall.product_service.config;
+
+import com.artztall.product_service.repository.SlowQueryRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoProfilerConfig {
+
+    /**
+     * Registers the slow-query recorder with every Mongo client Boot creates, blocking and reactive alike.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "product.slow-queries.enabled", havingValue = "true", matchIfMissing = true)
+    public MongoClientSettingsBuilderCustomizer slowQueryListener(SlowQueryRecorder slowQueryRecorder) {
+        return settings -> settings.addCommandListener(slowQueryRecorder);
+    }
+}
@@ -0,0 +1,15 @@
+package com.artztall.product_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.browse")
+public class ProductBrowseProperties {
+    /** Ascending lower bounds of the price facet buckets; the last bucket is open-ended. */
+    private List<Double> priceBuckets = List.of(0.0, 100.0, 500.0, 1_000.0, 5_000.0, 10_000.0);
+}
@@ -0,0 +1,18 @@
+package com.artztall.product_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.cache")
+public class ProductCacheProperties {
+    /** Maximum number of products held by the per-node cache. */
+    private long maximumSize = 10_000;
+
+    /** How long a cached product is served before it is read from the database again. */
+    private Duration ttl = Duration.ofMinutes(5);
+}
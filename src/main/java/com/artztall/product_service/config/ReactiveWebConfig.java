@@ -0,0 +1,31 @@
+package com.artztall.product_service.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Active with the {@code reactive} profile, which serves the read and reserve/release endpoints from
+ * ReactiveProductController instead of the blocking ProductController (see application-reactive.properties).
+ * <p>
+ * A node with this profile is a read-path deployment: product listings and lookups, reserve and release are
+ * all it serves, and every other endpoint (writes, leases, batch reservations, stats, suggestions, import and
+ * export) answers 404. Those stay on nodes without the profile, and the gateway routes them there. The blocking
+ * controller is not registered alongside: WebFlux would run its Mongo calls on the event loop.
+ */
+@Configuration
+@Profile(ReactiveWebConfig.REACTIVE_PROFILE)
+public class ReactiveWebConfig {
+
+    public static final String REACTIVE_PROFILE = "reactive";
+
+    /**
+     * Tomcat is on the classpath for the MVC stack and would otherwise be picked as the reactive server too;
+     * Netty keeps request handling on a small event-loop pool.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
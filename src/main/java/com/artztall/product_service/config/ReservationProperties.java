@@ -0,0 +1,21 @@
+package com.artztall.product_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.reservation")
+public class ReservationProperties {
+    /** Lease duration used when the caller does not ask for one. */
+    private Duration leaseTtl = Duration.ofMinutes(15);
+
+    /** Upper bound on a requested lease duration. */
+    private Duration maxLeaseTtl = Duration.ofHours(2);
+
+    /** Number of products the expiry sweeper releases per bulk update. */
+    private int sweeperBatchSize = 500;
+}
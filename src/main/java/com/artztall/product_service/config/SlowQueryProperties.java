@@ -0,0 +1,21 @@
+package com.artztall.product_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.slow-queries")
+public class SlowQueryProperties {
+    /** Whether Mongo commands are watched at all. */
+    private boolean enabled = true;
+
+    /** Commands taking at least this long are recorded. */
+    private Duration threshold = Duration.ofMillis(100);
+
+    /** How many of the most recent slow commands are kept. */
+    private int capacity = 100;
+}
@@ -0,0 +1,52 @@
+package com.artztall.product_service.controller;
+
+import com.artztall.product_service.dto.CacheStatsResponse;
+import com.artztall.product_service.dto.SlowQueryResponse;
+import com.artztall.product_service.service.ProductCache;
+import com.artztall.product_service.service.SlowQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Product Service Administration API")
+public class AdminController {
+    private final ProductCache productCache;
+    private final SlowQueryService slowQueryService;
+
+    @GetMapping("/cache")
+    @Operation(summary = "Get product cache statistics", description = "Hit, miss and eviction counters of this node's product cache")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(productCache.stats());
+    }
+
+    @GetMapping("/slow-queries")
+    @Operation(summary = "Get recent slow queries", description = "Mongo commands slower than product.slow-queries.threshold, slowest first, with their query shape, duration and documents returned")
+    public ResponseEntity<List<SlowQueryResponse>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryService.getSlowQueries());
+    }
+
+    @PostMapping("/slow-queries/{id}/explain")
+    @Operation(summary = "Explain a slow query", description = "Explains a recorded command in executionStats mode: documents and index keys examined and the winning plan")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Command explained"),
+            @ApiResponse(responseCode = "404", description = "The command is no longer recorded")
+    })
+    public ResponseEntity<SlowQueryResponse> explainSlowQuery(@PathVariable long id) {
+        return slowQueryService.explain(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,28 +1,74 @@
 package com.artztall.product_service.controller;
 
+import com.artztall.product_service.config.ReactiveWebConfig;
 import com.artztall.product_service.dto.AvailabilityUpdateRequest;
+import com.artztall.product_service.dto.BulkReservationRequest;
+import com.artztall.product_service.dto.BulkReservationResponse;
+import com.artztall.product_service.dto.CursorPageResponse;
+import com.artztall.product_service.dto.PriceHistogramResponse;
+import com.artztall.product_service.dto.ProductBatchRequest;
+import com.artztall.product_service.dto.ProductBatchResponse;
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.dto.ProductBrowseResponse;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductImportResponse;
+import com.artztall.product_service.dto.ProductPatchRequest;
 import com.artztall.product_service.dto.ProductRequest;
 import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ProductStatsResponse;
+import com.artztall.product_service.dto.ProductVersion;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.dto.SuggestionResponse;
+import com.artztall.product_service.service.ProductExportService;
+import com.artztall.product_service.service.ProductImportService;
 import com.artztall.product_service.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
+@Profile("!" + ReactiveWebConfig.REACTIVE_PROFILE)
 @Tag(name = "Product Management API")
 public class ProductController {
+    static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("price", "createdAt");
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String FIELDS_DESCRIPTION = "Pass fields=summary, or a comma-separated list of response fields, to fetch and return only those fields.";
+    // The artist, category, price-range and search listings used to return a bare JSON array of every match.
+    private static final String PAGE_DESCRIPTION = "Breaking change: the response is a page object with the products under content, no longer a JSON array of all matches; request further pages with page and size.";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product for an artist")
@@ -37,13 +83,71 @@ public class ProductController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {APPLICATION_NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Import products", description = "Creates many products for an artist from an NDJSON stream or a JSON array, reporting the lines that could not be imported")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader("Artist-ID") String artistId,
+            HttpServletRequest request) throws IOException {
+        // The body is read as a stream rather than bound, so imports of any size run in constant memory.
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        ProductImportResponse response = contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? productImportService.importJsonArray(request.getInputStream(), artistId)
+                : productImportService.importNdjson(request.getInputStream(), artistId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON)
+    @Operation(summary = "Export products", description = "Streams the whole catalog, or the products updated since a given time, as NDJSON; gzip-compressed when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024, true);
+                productExportService.exportNdjson(updatedSince, compressed);
+                compressed.finish();
+            } else {
+                productExportService.exportNdjson(updatedSince, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Update a product", description = "Updates an existing product")
+    @Operation(summary = "Update a product", description = "Updates an existing product. With If-Match, only while its ETag still matches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product updated"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "412", description = "Product was changed since the If-Match ETag was read")
+    })
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody ProductRequest productRequest) {
-        ProductResponse response = productService.updateProduct(id, productRequest);
-        return ResponseEntity.ok(response);
+        ProductResponse response = productService.updateProduct(id, productRequest, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(productETag(response.getVersion())).body(response);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a product", description = "Changes only the fields present in the body. With If-Match, only while its ETag still matches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product updated"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "412", description = "Product was changed since the If-Match ETag was read")
+    })
+    public ResponseEntity<ProductResponse> patchProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ProductPatchRequest patchRequest) {
+        ProductResponse response = productService.patchProduct(id, patchRequest, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(productETag(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -55,40 +159,133 @@ public class ProductController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a product by ID", description = "Retrieves a product by its ID")
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable String id) {
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable String id, WebRequest request) {
+        // Revalidation reads only the version, so an unchanged product is neither loaded, mapped nor serialized.
+        if (isRevalidation(request)) {
+            ProductVersion version = productService.getProductVersion(id);
+            if (request.checkNotModified(productETag(version.getVersion()), lastModified(version.getUpdatedAt()))) {
+                return null;
+            }
+        }
         ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(productETag(response.getVersion()));
+        if (response.getUpdatedAt() != null) {
+            ok.lastModified(lastModified(response.getUpdatedAt()));
+        }
+        return ok.body(response);
     }
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieves all products with pagination")
+    @Operation(summary = "Get all products", description = "Retrieves all products with pagination. " + FIELDS_DESCRIPTION)
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest request) {
+        PageRequest pageRequest = pageRequest(page, size, Sort.unsorted());
+        return conditionalPage(request, fields, selected -> productService.getAllProducts(pageRequest, selected));
+    }
+
+    @GetMapping("/feed")
+    @Operation(summary = "Walk the catalog", description = "Cursor-paginated listing of all products in id order, without total counts. Pass nextCursor from the previous page to continue.")
+    public ResponseEntity<CursorPageResponse> getProductFeed(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        Page<ProductResponse> response = productService.getAllProducts(PageRequest.of(page, size));
+        CursorPageResponse response = productService.getProductFeed(cursor, pageSize(size));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/artist/{artistId}")
-    @Operation(summary = "Get products by artist", description = "Retrieves all products for a specific artist")
-    public ResponseEntity<List<ProductResponse>> getProductsByArtist(@PathVariable String artistId) {
-        List<ProductResponse> response = productService.getProductsByArtist(artistId);
-        return ResponseEntity.ok(response);
+    @Operation(summary = "Get products by artist", description = "Retrieves a page of products for a specific artist, sortable by price or createdAt. " + PAGE_DESCRIPTION + " " + FIELDS_DESCRIPTION)
+    public ResponseEntity<Page<ProductResponse>> getProductsByArtist(
+            @PathVariable String artistId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest request) {
+        PageRequest pageRequest = pageRequest(page, size, sort(sortBy, direction));
+        return conditionalPage(request, fields,
+                selected -> productService.getProductsByArtist(artistId, pageRequest, selected));
+    }
+
+    @GetMapping("/artist/{artistId}/stats")
+    @Operation(summary = "Get artist statistics", description = "Product count, available count, price range and average, and counts per category and medium of an artist's products")
+    public ResponseEntity<ProductStatsResponse> getArtistStats(@PathVariable String artistId) {
+        return ResponseEntity.ok(productService.getArtistStats(artistId));
+    }
+
+    @GetMapping("/category/{category}/stats")
+    @Operation(summary = "Get category statistics", description = "Product count, available count, price range and average, and counts per medium of a category's products")
+    public ResponseEntity<ProductStatsResponse> getCategoryStats(@PathVariable String category) {
+        return ResponseEntity.ok(productService.getCategoryStats(category));
     }
 
     @GetMapping("/category/{category}")
-    @Operation(summary = "Get products by category", description = "Retrieves all products in a specific category")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable String category) {
-        List<ProductResponse> response = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(response);
+    @Operation(summary = "Get products by category", description = "Retrieves a page of products in a specific category, sortable by price or createdAt. " + PAGE_DESCRIPTION + " " + FIELDS_DESCRIPTION)
+    public ResponseEntity<Page<ProductResponse>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest request) {
+        PageRequest pageRequest = pageRequest(page, size, sort(sortBy, direction));
+        return conditionalPage(request, fields,
+                selected -> productService.getProductsByCategory(category, pageRequest, selected));
     }
 
     @GetMapping("/price-range")
-    @Operation(summary = "Get products by price range", description = "Retrieves all products within a price range")
-    public ResponseEntity<List<ProductResponse>> getProductsByPriceRange(
+    @Operation(summary = "Get products by price range", description = "Retrieves a page of products within a price range, sortable by price or createdAt. " + PAGE_DESCRIPTION + " " + FIELDS_DESCRIPTION)
+    public ResponseEntity<Page<ProductResponse>> getProductsByPriceRange(
             @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
-        List<ProductResponse> response = productService.getProductsByPriceRange(minPrice, maxPrice);
+            @RequestParam Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest request) {
+        PageRequest pageRequest = pageRequest(page, size, sort(sortBy, direction));
+        return conditionalPage(request, fields,
+                selected -> productService.getProductsByPriceRange(minPrice, maxPrice, pageRequest, selected));
+    }
+
+    @GetMapping("/price-range/histogram")
+    @Operation(summary = "Count products by price range", description = "Counts the products priced within [minPrice, maxPrice], optionally in one category, split into equal-width buckets. Omitted bounds default to the lowest and highest price. Served from memory without querying the database")
+    public ResponseEntity<PriceHistogramResponse> getPriceHistogram(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "10") int buckets) {
+        return ResponseEntity.ok(productService.getPriceHistogram(category, minPrice, maxPrice, buckets));
+    }
+
+    @GetMapping("/browse")
+    @Operation(summary = "Browse products with facets", description = "Filters by any combination of attributes and returns a page of results plus category, medium, style and price-bucket counts in one call")
+    public ResponseEntity<ProductBrowseResponse> browseProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String medium,
+            @RequestParam(required = false) String style,
+            @RequestParam(required = false) String artistId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        ProductBrowseFilter filter = new ProductBrowseFilter();
+        filter.setCategory(category);
+        filter.setMedium(medium);
+        filter.setStyle(style);
+        filter.setArtistId(artistId);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setAvailable(available);
+        ProductBrowseResponse response = productService.browseProducts(filter, pageRequest(page, size, sort(sortBy, direction)));
         return ResponseEntity.ok(response);
     }
 
@@ -102,34 +299,211 @@ public class ProductController {
     }
 
     @PutMapping("/{id}/reserve")
-    @Operation(summary = "Reserve Product", description = "Reserve Product.")
-    public ResponseEntity<ProductResponse> reserveProduct(@PathVariable String id) {
-        try {
-            ProductResponse response = productService.reserveProduct(id);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    @Operation(summary = "Reserve Product", description = "Reserves the given quantity of a product's stock. The reservation expires after the default lease duration unless confirmed; release it by its id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product reserved successfully"),
+            @ApiResponse(responseCode = "400", description = "Quantity is less than 1"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock left to reserve")
+    })
+    public ResponseEntity<ReservationLeaseResponse> reserveProduct(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "1") int quantity) {
+        ReservationLeaseResponse response = productService.reserveProduct(id, quantity);
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/release")
-    @Operation(summary = "Release product ", description = "Release Product.")
-    public ResponseEntity<ProductResponse> releaseProduct(@PathVariable String id) {
-        try {
-            ProductResponse response = productService.releaseProduct(id);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    @Operation(summary = "Release product ", description = "Returns the units of a reservation to a product's stock. Takes the reservationId returned by reserve; releasing by quantity is no longer supported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product released successfully"),
+            @ApiResponse(responseCode = "400", description = "reservationId is missing"),
+            @ApiResponse(responseCode = "404", description = "Product or reservation not found")
+    })
+    public ResponseEntity<ProductResponse> releaseProduct(
+            @PathVariable String id,
+            @RequestParam String reservationId) {
+        ProductResponse response = productService.releaseProduct(id, reservationId);
+        return ResponseEntity.ok(response);
     }
 
 
+    @PostMapping("/{id}/leases")
+    @Operation(summary = "Lease product stock", description = "Reserves stock for a limited time; it is released automatically unless confirmed or renewed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Lease created"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock left to reserve")
+    })
+    public ResponseEntity<ReservationLeaseResponse> leaseProduct(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "1") int quantity,
+            @RequestParam(required = false) Long ttlSeconds) {
+        ReservationLeaseResponse response = productService.leaseProduct(id, quantity, toDuration(ttlSeconds));
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{id}/leases/{leaseId}/renew")
+    @Operation(summary = "Renew lease", description = "Extends a lease that has not yet expired.")
+    public ResponseEntity<ReservationLeaseResponse> renewLease(
+            @PathVariable String id,
+            @PathVariable String leaseId,
+            @RequestParam(required = false) Long ttlSeconds) {
+        ReservationLeaseResponse response = productService.renewLease(id, leaseId, toDuration(ttlSeconds));
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}/leases/{leaseId}/confirm")
+    @Operation(summary = "Confirm lease", description = "Turns a lease into a sale; the stock stays taken.")
+    public ResponseEntity<ProductResponse> confirmLease(@PathVariable String id, @PathVariable String leaseId) {
+        ProductResponse response = productService.confirmLease(id, leaseId);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}/leases/{leaseId}")
+    @Operation(summary = "Release lease", description = "Cancels a lease and returns its stock.")
+    public ResponseEntity<ProductResponse> releaseLease(@PathVariable String id, @PathVariable String leaseId) {
+        ProductResponse response = productService.releaseLease(id, leaseId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Fetches up to 100 products in one call, in request order, listing the ids that match no product separately.")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestBody ProductBatchRequest request) {
+        ProductBatchResponse response = productService.getProductsByIds(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/batch/reserve")
+    @Operation(summary = "Reserve products", description = "Reserves all products of a cart, or none of them if any is unavailable. The hold lapses after the lease duration unless confirmed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All products reserved successfully"),
+            @ApiResponse(responseCode = "409", description = "At least one product is missing or already reserved")
+    })
+    public ResponseEntity<BulkReservationResponse> reserveProducts(@RequestBody BulkReservationRequest request) {
+        BulkReservationResponse response = productService.reserveProducts(request.getProductIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/batch/confirm")
+    @Operation(summary = "Confirm products", description = "Turns a batch reservation into a sale; the stock stays taken.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All products confirmed"),
+            @ApiResponse(responseCode = "409", description = "The hold on at least one product has lapsed; nothing was confirmed")
+    })
+    public ResponseEntity<List<ProductResponse>> confirmProducts(@RequestBody BulkReservationRequest request) {
+        List<ProductResponse> response = productService.confirmProducts(request.getProductIds(), request.getReservationId());
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/batch/release")
+    @Operation(summary = "Release products", description = "Releases the products held by a batch reservation.")
+    public ResponseEntity<List<ProductResponse>> releaseProducts(@RequestBody BulkReservationRequest request) {
+        List<ProductResponse> response = productService.releaseProducts(request.getProductIds(), request.getReservationId());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by name, description, or tags")
-    public ResponseEntity<List<ProductResponse>> searchProducts(
-            @RequestParam String query) {
-        List<ProductResponse> response = productService.searchProducts(query);
+    @Operation(summary = "Search products", description = "Full-text search over name, description and tags, best matches first. " + PAGE_DESCRIPTION)
+    public ResponseEntity<Page<ProductResponse>> searchProducts(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Page<ProductResponse> response = productService.searchProducts(query, pageRequest(page, size, Sort.unsorted()));
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest search completions", description = "Tags, categories, mediums, styles and product names with a word starting with the prefix, most used first. Served from memory without querying the database")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
+    }
+
+    /**
+     * Serves a listing page with an ETag over the ids and versions of its products and its total. On
+     * revalidation the page is first read with only ids and versions projected, and the full page is read,
+     * mapped and serialized only if that ETag no longer matches.
+     */
+    private static ResponseEntity<Page<ProductResponse>> conditionalPage(
+            WebRequest request, String fields, Function<ProductFields, Page<ProductResponse>> query) {
+        ProductFields selected = ProductFields.parse(fields);
+        if (isRevalidation(request) && request.checkNotModified(pageETag(query.apply(ProductFields.VERSIONS)))) {
+            return null;
+        }
+        Page<ProductResponse> page = query.apply(selected);
+        return ResponseEntity.ok().eTag(pageETag(page)).body(page);
+    }
+
+    private static boolean isRevalidation(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static String productETag(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Reads the version out of an If-Match header holding one product ETag. No header, or {@code *}, means
+     * unconditional.
+     */
+    static Long expectedVersion(String ifMatch) {
+        String etag = ifMatch == null ? "*" : ifMatch.trim();
+        if (etag.equals("*")) {
+            return null;
+        }
+        // Weak ETags (W/"..") never match under If-Match's strong comparison, so they are rejected too.
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our ETags.
+            }
+        }
+        throw new IllegalArgumentException("Invalid If-Match ETag: " + ifMatch);
+    }
+
+    private static String pageETag(Page<ProductResponse> page) {
+        StringBuilder versions = new StringBuilder().append(page.getTotalElements());
+        for (ProductResponse product : page.getContent()) {
+            versions.append(',').append(product.getId()).append(':').append(product.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long lastModified(LocalDateTime updatedAt) {
+        // LocalDateTime values are stored in the JVM zone, as Spring Data converts them.
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Builds a page request, capping the page size so no listing can materialize an unbounded result.
+     */
+    static PageRequest pageRequest(int page, int size, Sort sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must be at least 0");
+        }
+        return PageRequest.of(page, pageSize(size), sort);
+    }
+
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    static Sort sort(String sortBy, Sort.Direction direction) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy + ", expected one of " + SORTABLE_FIELDS);
+        }
+        // The id tie-breaker keeps page boundaries stable when many products share a price or timestamp.
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    private static Duration toDuration(Long seconds) {
+        return seconds == null ? null : Duration.ofSeconds(seconds);
+    }
 }
@@ -0,0 +1,49 @@
+package com.artztall.product_service.controller;
+
+import com.artztall.product_service.dto.ProductFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+
+/**
+ * Serializes only the requested {@link com.artztall.product_service.dto.ProductResponse} properties for handler
+ * methods that take a {@code fields} parameter. The matching projection is pushed down to Mongo by the service.
+ */
+@RestControllerAdvice(assignableTypes = ProductController.class)
+public class ProductFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAM = "fields";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.getMethod() != null
+                && Arrays.stream(returnType.getMethod().getParameters())
+                .map(parameter -> parameter.getAnnotation(RequestParam.class))
+                .anyMatch(param -> param != null && FIELDS_PARAM.equals(param.name()));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        ProductFields fields = ProductFields.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+        if (!fields.isAll()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(ProductFields.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.artztall.product_service.controller;
+
+import com.artztall.product_service.config.ReactiveWebConfig;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux handlers for the read and reserve/release endpoints, active with the reactive profile in place of
+ * {@link ProductController}. Paths, the paging and sort parameters and the response bodies are the same, except that:
+ * <ul>
+ *     <li>the {@code fields} projection is not supported; every response carries all fields;</li>
+ *     <li>no {@code ETag} or {@code Last-Modified} headers are sent, and {@code If-None-Match} and
+ *     {@code If-Modified-Since} are ignored, so a repeated GET never answers 304 Not Modified.</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Profile(ReactiveWebConfig.REACTIVE_PROFILE)
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    @GetMapping("/{id}")
+    public Mono<ProductResponse> getProduct(@PathVariable String id) {
+        return productService.getProductById(id);
+    }
+
+    @GetMapping
+    public Mono<Page<ProductResponse>> getAllProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return productService.getAllProducts(ProductController.pageRequest(page, size, Sort.unsorted()));
+    }
+
+    @GetMapping("/artist/{artistId}")
+    public Mono<Page<ProductResponse>> getProductsByArtist(
+            @PathVariable String artistId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        return productService.getProductsByArtist(artistId,
+                ProductController.pageRequest(page, size, ProductController.sort(sortBy, direction)));
+    }
+
+    @GetMapping("/category/{category}")
+    public Mono<Page<ProductResponse>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        return productService.getProductsByCategory(category,
+                ProductController.pageRequest(page, size, ProductController.sort(sortBy, direction)));
+    }
+
+    @GetMapping("/price-range")
+    public Mono<Page<ProductResponse>> getProductsByPriceRange(
+            @RequestParam Double minPrice,
+            @RequestParam Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+        return productService.getProductsByPriceRange(minPrice, maxPrice,
+                ProductController.pageRequest(page, size, ProductController.sort(sortBy, direction)));
+    }
+
+    @PutMapping("/{id}/reserve")
+    public Mono<ReservationLeaseResponse> reserveProduct(@PathVariable String id,
+                                                         @RequestParam(defaultValue = "1") int quantity) {
+        return productService.reserveProduct(id, quantity);
+    }
+
+    @PutMapping("/{id}/release")
+    public Mono<ProductResponse> releaseProduct(@PathVariable String id,
+                                                @RequestParam String reservationId) {
+        return productService.releaseProduct(id, reservationId);
+    }
+}
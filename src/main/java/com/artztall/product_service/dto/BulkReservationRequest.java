@@ -0,0 +1,16 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO listing the products of a cart to reserve or release together.")
+public class BulkReservationRequest {
+    @Schema(description = "IDs of the products to reserve, confirm or release, at most 100")
+    private List<String> productIds;
+
+    @Schema(description = "ID returned by the batch reservation, required when confirming or releasing")
+    private String reservationId;
+}
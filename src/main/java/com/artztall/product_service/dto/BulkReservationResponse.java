@@ -0,0 +1,14 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkReservationResponse {
+    private String reservationId;
+    /** The units are returned to stock at this time unless the reservation is confirmed. */
+    private LocalDateTime expiresAt;
+    private List<ProductResponse> products;
+}
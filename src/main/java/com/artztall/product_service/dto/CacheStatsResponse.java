@@ -0,0 +1,12 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsResponse {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+}
@@ -0,0 +1,13 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CursorPageResponse {
+    private List<ProductResponse> content;
+    private boolean hasNext;
+    /** Opaque token to pass as {@code cursor} for the next page; {@code null} on the last page. */
+    private String nextCursor;
+}
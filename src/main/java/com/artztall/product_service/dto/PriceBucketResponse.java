@@ -0,0 +1,11 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+@Data
+public class PriceBucketResponse {
+    private double minPrice;
+    /** Exclusive upper bound; {@code null} for the open-ended top bucket. */
+    private Double maxPrice;
+    private long count;
+}
@@ -0,0 +1,25 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Number of products within a price range, optionally split into equal-width buckets.")
+public class PriceHistogramResponse {
+    @Schema(description = "category the counts are restricted to, absent for all products")
+    private String category;
+
+    @Schema(description = "lower bound of the range, inclusive")
+    private Double minPrice;
+
+    @Schema(description = "upper bound of the range, inclusive")
+    private Double maxPrice;
+
+    @Schema(description = "number of products priced within the range")
+    private long count;
+
+    @Schema(description = "equal-width buckets covering the range; each excludes its upper bound except the last")
+    private List<PriceBucketResponse> buckets;
+}
@@ -0,0 +1,13 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO listing the products to fetch in one call.")
+public class ProductBatchRequest {
+    @Schema(description = "IDs of the products to fetch, at most 100")
+    private List<String> ids;
+}
@@ -0,0 +1,16 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO with the products found for a batch request, in request order.")
+public class ProductBatchResponse {
+    @Schema(description = "Products found, in the order their ids were requested")
+    private List<ProductResponse> products;
+
+    @Schema(description = "Requested ids that match no product")
+    private List<String> missingIds;
+}
@@ -0,0 +1,14 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+@Data
+public class ProductBrowseFilter {
+    private String category;
+    private String medium;
+    private String style;
+    private String artistId;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean available;
+}
@@ -0,0 +1,18 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ProductBrowseResponse {
+    private List<ProductResponse> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<String, Long> categories;
+    private Map<String, Long> mediums;
+    private Map<String, Long> styles;
+    private List<PriceBucketResponse> priceBuckets;
+}
@@ -0,0 +1,88 @@
+package com.artztall.product_service.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A sparse fieldset of {@link ProductResponse}, as requested through the {@code fields} parameter of the listing
+ * endpoints: either a comma-separated list of response properties or the named {@code summary} view.
+ */
+public final class ProductFields {
+
+    /** Id of the Jackson filter applied to {@link ProductResponse}. */
+    public static final String FILTER_ID = "productFields";
+
+    public static final String SUMMARY_VIEW = "summary";
+
+    public static final ProductFields ALL = new ProductFields(null);
+
+    /** Just enough to compute a listing ETag. */
+    public static final ProductFields VERSIONS = new ProductFields(Set.of("id", "version"));
+
+    /** What a grid view needs: no description, tags or dimensions. */
+    public static final ProductFields SUMMARY = new ProductFields(Set.of("id", "name", "price", "imageUrl", "available"));
+
+    // ProductResponse property -> Product document property, where they differ.
+    private static final Map<String, String> DOCUMENT_FIELDS = Map.of("available", "isAvailable");
+
+    private static final Set<String> RESPONSE_FIELDS = Set.of("id", "name", "description", "price", "artistId",
+            "category", "tags", "imageUrl", "stockQuantity", "createdAt", "updatedAt", "available", "dimensions",
+            "medium", "style", "version");
+
+    private final Set<String> names;
+
+    private ProductFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a {@code fields} parameter; {@code null} or blank selects every field. The id is always included.
+     *
+     * @throws IllegalArgumentException if a name is not a {@link ProductResponse} property
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        if (SUMMARY_VIEW.equals(fields.trim())) {
+            return SUMMARY;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String name : names) {
+            if (!RESPONSE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown product field: " + name);
+            }
+        }
+        names.add("id");
+        return new ProductFields(Collections.unmodifiableSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /** Response properties to serialize; only meaningful when not {@link #isAll()}. */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Product document properties to project; only meaningful when not {@link #isAll()}. Always includes the
+     * version, which the listing ETag is computed from even when it is not serialized.
+     */
+    public Collection<String> getDocumentFields() {
+        Set<String> fields = names.stream()
+                .map(name -> DOCUMENT_FIELDS.getOrDefault(name, name))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        fields.add("version");
+        return fields;
+    }
+}
@@ -0,0 +1,14 @@
+package com.artztall.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportError {
+    /** 1-based line number for NDJSON, or 1-based element position for a JSON array. */
+    private long line;
+    private String message;
+}
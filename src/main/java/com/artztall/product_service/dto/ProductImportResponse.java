@@ -0,0 +1,15 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportResponse {
+    private long total;
+    private long imported;
+    private long failed;
+    /** One entry per rejected line; lines not listed here were imported. */
+    private List<ProductImportError> errors = new ArrayList<>();
+}
@@ -23,4 +23,5 @@ public class ProductResponse {
     private ProductDimensionsDTO dimensions;
     private String medium;
     private String style;
+    private Long version;
 }
@@ -0,0 +1,34 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Schema(description = "Aggregate figures over the products of one artist or one category.")
+public class ProductStatsResponse {
+    @Schema(description = "artist id or category the figures are for")
+    private String key;
+
+    @Schema(description = "number of products")
+    private long count;
+
+    @Schema(description = "number of products currently available for purchase")
+    private long availableCount;
+
+    @Schema(description = "lowest price, absent when there are no products")
+    private Double minPrice;
+
+    @Schema(description = "highest price, absent when there are no products")
+    private Double maxPrice;
+
+    @Schema(description = "average price, absent when there are no products")
+    private Double averagePrice;
+
+    @Schema(description = "number of products per category, most frequent first")
+    private Map<String, Long> categories;
+
+    @Schema(description = "number of products per medium, most frequent first")
+    private Map<String, Long> mediums;
+}
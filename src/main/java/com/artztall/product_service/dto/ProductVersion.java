@@ -0,0 +1,16 @@
+package com.artztall.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The parts of a product that decide whether a client's copy is current, read without the rest of the document.
+ */
+@Data
+@AllArgsConstructor
+public class ProductVersion {
+    private long version;
+    private LocalDateTime updatedAt;
+}
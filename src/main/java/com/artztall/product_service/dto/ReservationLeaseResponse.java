@@ -0,0 +1,13 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReservationLeaseResponse {
+    private String leaseId;
+    private int quantity;
+    private LocalDateTime expiresAt;
+    private ProductResponse product;
+}
@@ -0,0 +1,25 @@
+package com.artztall.product_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SlowQueryResponse {
+    private long id;
+    private LocalDateTime recordedAt;
+    private String commandName;
+    private String collection;
+    /** ProductRepository method that issued the command, when it ran on the calling thread. */
+    private String repositoryMethod;
+    /** The command's filter, sort and pipeline with every literal value replaced by {@code "?"}. */
+    private String shape;
+    private long durationMillis;
+    private Long documentsReturned;
+
+    // Filled in by an explain of the recorded command.
+    private Long documentsExamined;
+    private Long keysExamined;
+    private String winningPlan;
+    private Boolean collectionScan;
+}
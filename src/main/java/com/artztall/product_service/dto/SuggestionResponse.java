@@ -0,0 +1,17 @@
+package com.artztall.product_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "A completion for a search box prefix.")
+public class SuggestionResponse {
+    @Schema(description = "text to complete to, as first written")
+    private String text;
+
+    @Schema(description = "where the text occurs: tag, category, medium, style or name")
+    private String type;
+
+    @Schema(description = "number of products carrying the text, which ranks the suggestions")
+    private long count;
+}
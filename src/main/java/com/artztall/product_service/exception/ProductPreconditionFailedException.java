@@ -0,0 +1,7 @@
+package com.artztall.product_service.exception;
+
+public class ProductPreconditionFailedException extends RuntimeException {
+    public ProductPreconditionFailedException(String id, long expectedVersion) {
+        super("Product " + id + " is no longer at version " + expectedVersion);
+    }
+}
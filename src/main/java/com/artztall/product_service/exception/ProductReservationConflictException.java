@@ -0,0 +1,13 @@
+package com.artztall.product_service.exception;
+
+import java.util.Collection;
+
+public class ProductReservationConflictException extends RuntimeException {
+    public ProductReservationConflictException(String id) {
+        super("Product is not available for purchase: " + id);
+    }
+
+    public ProductReservationConflictException(Collection<String> ids) {
+        super("One or more products are not available for purchase: " + ids);
+    }
+}
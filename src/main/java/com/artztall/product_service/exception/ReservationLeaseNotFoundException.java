@@ -0,0 +1,7 @@
+package com.artztall.product_service.exception;
+
+public class ReservationLeaseNotFoundException extends RuntimeException {
+    public ReservationLeaseNotFoundException(String productId, String leaseId) {
+        super("No active reservation lease " + leaseId + " on product: " + productId);
+    }
+}
@@ -3,7 +3,12 @@ package com.artztall.product_service.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,22 +16,40 @@ import java.util.List;
 
 @Data
 @Document(collection = "products")
+// The compounds also serve equality-only lookups on their first field, so artistId and category need no index of their own.
+@CompoundIndex(name = "artistId_createdAt", def = "{'artistId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "category_price", def = "{'category': 1, 'price': 1}")
+// Category pages default to newest first.
+@CompoundIndex(name = "category_createdAt", def = "{'category': 1, 'createdAt': -1}")
 public class Product {
     @Id
     private String id;
+    @TextIndexed(weight = 3)
     private String name;
+    @TextIndexed
     private String description;
+    @Indexed
     private double price;
     private String artistId;
     private String category;
+    @TextIndexed(weight = 2)
+    @Indexed
     private List<String> tags;
     private String imageUrl;
     private Integer stockQuantity;
     private LocalDateTime createdAt;
+    @Indexed
     private LocalDateTime updatedAt;
     private boolean isAvailable;
     private String medium;
     private ProductDimensions dimensions;
     private String style;
+    private List<ProductReservation> reservations;
+    // Incremented by every write; backs the product ETag and If-Match checks. Absent on documents that predate it,
+    // which read as 0. Such documents must not go through save(), which would take them for new ones.
+    @Version
+    private Long version;
+    @TextScore
+    private Float score;
 
 }
@@ -0,0 +1,16 @@
+package com.artztall.product_service.model;
+
+import lombok.Data;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProductReservation {
+    private String reservationId;
+    private int quantity;
+    private LocalDateTime reservedAt;
+    // Sparse, so only products currently holding leases are in the index the sweeper scans.
+    @Indexed(sparse = true)
+    private LocalDateTime expiresAt;
+}
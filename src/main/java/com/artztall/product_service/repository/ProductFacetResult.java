@@ -0,0 +1,18 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ProductFacetResult {
+    private List<Product> products;
+    private long total;
+    private Map<String, Long> categories;
+    private Map<String, Long> mediums;
+    private Map<String, Long> styles;
+    /** Counts keyed by the lower bound of each price bucket; the last key collects everything above it. */
+    private Map<Double, Long> priceBuckets;
+}
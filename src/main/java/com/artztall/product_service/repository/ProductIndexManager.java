@@ -0,0 +1,146 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on {@link Product} once the application is up, checks that they exist and
+ * explains the shapes of the repository queries so that a query falling back to a collection scan or an
+ * in-memory sort shows up in the logs before it shows up in production latency. Spring Boot leaves automatic index creation
+ * off, and doing it here keeps startup from blocking on the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.indexes.auto-create", havingValue = "true", matchIfMissing = true)
+public class ProductIndexManager {
+
+    /**
+     * Representative filters and sorts of the repository query methods, keyed by method name. The sorts are the
+     * ones the endpoints default to.
+     */
+    static final Map<String, Document[]> QUERY_SHAPES = Map.of(
+            "findByArtistId", shape(new Document("artistId", "?"), new Document("createdAt", -1)),
+            "findByCategory", shape(new Document("category", "?"), new Document("createdAt", -1)),
+            "findByTagsContaining", shape(new Document("tags", "?"), null),
+            "findByPriceRange", shape(new Document("price", new Document("$gte", 0.0).append("$lte", 1.0)),
+                    new Document("price", 1)),
+            "streamUpdatedSince", shape(new Document("updatedAt", new Document("$gte", new Date())),
+                    new Document("updatedAt", 1)),
+            "findIdsWithExpiredLeases", shape(new Document("reservations.expiresAt", new Document("$lt", new Date())), null));
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean verifyQueryPlans;
+
+    public ProductIndexManager(MongoTemplate mongoTemplate,
+                               @Value("${product.indexes.verify-query-plans:true}") boolean verifyQueryPlans) {
+        this.mongoTemplate = mongoTemplate;
+        this.verifyQueryPlans = verifyQueryPlans;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensureIndexes();
+            if (verifyQueryPlans) {
+                verifyQueryPlans();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not verify product indexes: {}", e.getMessage());
+        }
+    }
+
+    public void ensureIndexes() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Product.class);
+        List<IndexDefinition> declared = new ArrayList<>();
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Product.class)
+                .forEach(declared::add);
+        for (IndexDefinition index : declared) {
+            try {
+                indexOperations.ensureIndex(index);
+            } catch (RuntimeException e) {
+                log.warn("Could not ensure index {}: {}", index.getIndexKeys(), e.getMessage());
+            }
+        }
+
+        Set<String> existing = indexOperations.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        declared.stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .filter(name -> name != null && !existing.contains(name))
+                .forEach(name -> log.warn("Declared index {} is missing on collection {}", name,
+                        mongoTemplate.getCollectionName(Product.class)));
+    }
+
+    public void verifyQueryPlans() {
+        QUERY_SHAPES.forEach((method, shape) -> {
+            String stage = slowStage(explain(shape[0], shape[1]));
+            if (stage != null) {
+                log.warn("ProductRepository.{} is planned with a {} stage: {}", method, stage, shape[0].toJson());
+            }
+        });
+    }
+
+    /**
+     * Runs {@code explain} in {@code queryPlanner} mode, which plans the query without executing it.
+     */
+    public Document explain(Document filter, Document sort) {
+        Document find = new Document("find", mongoTemplate.getCollectionName(Product.class)).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    /**
+     * The first stage of the winning plan that does not use an index: {@code COLLSCAN}, or {@code SORT}, which
+     * sorts in memory and fails once the matches outgrow the sort memory limit. Null if there is none.
+     */
+    static String slowStage(Document explain) {
+        if (!(explain.get("queryPlanner") instanceof Document planner)) {
+            return null;
+        }
+        for (String stage : List.of("COLLSCAN", "SORT")) {
+            if (containsStage(planner.get("winningPlan"), stage)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private static Document[] shape(Document filter, Document sort) {
+        return new Document[]{filter, sort};
+    }
+}
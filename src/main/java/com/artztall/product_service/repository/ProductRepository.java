@@ -1,6 +1,9 @@
 package com.artztall.product_service.repository;
 
 import com.artztall.product_service.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,19 +12,14 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
-    List<Product> findByArtistId(String artistId);
-    List<Product> findByCategory(String category);
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+    Page<Product> findByArtistId(String artistId, Pageable pageable);
+    Page<Product> findByCategory(String category, Pageable pageable);
 
     List<Product> findByTagsContaining(String tag);
 
     @Query("{'price': {$gte: ?0, $lte: ?1}}")
-    List<Product> findByPriceRange(Double minPrice, Double maxPrice);
+    Page<Product> findByPriceRange(Double minPrice, Double maxPrice, Pageable pageable);
 
-    @Query("{ $or: [ " +
-            "  { name: { $regex: ?0, $options: 'i' } }, " +
-            "  { description: { $regex: ?0, $options: 'i' } }, " +
-            "  { tags: { $regex: ?0, $options: 'i' } } " +
-            "]}")
-    List<Product> searchProducts(String searchTerm);
+    Page<Product> findAllByOrderByScoreDesc(TextCriteria criteria, Pageable pageable);
 }
@@ -0,0 +1,137 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Reads up to {@code limit} products ordered by id, starting right after {@code afterId}
+     * (or from the beginning when it is {@code null}). Uses the {@code _id} index only: no skip and no count.
+     */
+    List<Product> findAfter(String afterId, int limit);
+
+    /**
+     * Reads only the id, version and update time of a product.
+     */
+    Optional<Product> findVersionById(String productId);
+
+    /**
+     * Reads a page of matching products with only {@code fields} fetched from the database.
+     */
+    Page<Product> findPage(Criteria criteria, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Streams products off an open cursor in {@code updatedAt} order, optionally only those updated at or after
+     * {@code updatedSince}. Reservations are not read. The stream must be closed to release the cursor.
+     */
+    Stream<Product> streamUpdatedSince(LocalDateTime updatedSince);
+
+    /**
+     * Streams every product with only {@code fields} read, for building in-memory views of the catalog.
+     * The stream must be closed to release the cursor.
+     */
+    Stream<Product> streamFields(Collection<String> fields);
+
+    /**
+     * Inserts the products with one unordered bulk write, so a failing document does not stop the others.
+     *
+     * @return error messages of the documents that were not inserted, keyed by their position in {@code products}
+     */
+    Map<Integer, String> insertUnordered(List<Product> products);
+
+    /**
+     * Atomically sets the given fields, bumps the version and stamps the update time, touching nothing else.
+     * With an {@code expectedVersion} the write only applies while the product is still at that version.
+     *
+     * @param fields new values keyed by document field name
+     * @return the updated product, or empty if it does not exist or is no longer at {@code expectedVersion}
+     */
+    Optional<Product> updateFields(String productId, Long expectedVersion, Map<String, Object> fields);
+
+    /**
+     * Runs one {@code $facet} aggregation returning the requested page of matching products together with the
+     * total and the per-category, per-medium, per-style and per-price-bucket counts of all matching products.
+     *
+     * @param priceBoundaries ascending lower bounds of the price buckets; the last bucket is open-ended
+     */
+    ProductFacetResult browse(ProductBrowseFilter filter, Pageable pageable, List<Double> priceBoundaries);
+
+    /**
+     * Reserves one unit of each of the given products in one bulk write, tagging each with {@code reservationId}.
+     * If any product is missing or out of stock, the ones reserved by this call are released again. Unless
+     * confirmed, the units are returned by the expiry sweeper after {@code expiresAt}, like a lease's.
+     *
+     * @return {@code true} if every product was reserved, {@code false} if the reservation was rolled back
+     */
+    boolean reserveAll(Collection<String> productIds, String reservationId, LocalDateTime expiresAt);
+
+    /**
+     * Turns a batch reservation into a sale: drops its entries while keeping the units out of stock. Nothing is
+     * confirmed unless every product still holds an unexpired entry of {@code reservationId}; products confirmed
+     * before one is found missing get their entries back.
+     *
+     * @return {@code true} if every product was confirmed
+     */
+    boolean confirmAll(Collection<String> productIds, String reservationId);
+
+    /**
+     * Returns the stock held by {@code reservationId} to each of the given products.
+     * Products that do not carry the reservation are left untouched, so releasing twice is harmless.
+     *
+     * @return the number of products that were updated
+     */
+    long releaseAll(Collection<String> productIds, String reservationId);
+
+    /**
+     * Atomically takes {@code quantity} units out of stock if the product is available and has at least that many
+     * left, and records them as a lease that expires at {@code expiresAt}. Availability is recomputed in the same
+     * update, so the product becomes unavailable when stock hits zero.
+     *
+     * @return the updated product, or empty if it does not exist or has insufficient stock
+     */
+    Optional<Product> leaseStock(String productId, String leaseId, int quantity, LocalDateTime expiresAt);
+
+    /**
+     * Moves the expiry of a lease that has not yet expired.
+     *
+     * @return the updated product, or empty if there is no such active lease
+     */
+    Optional<Product> renewLease(String productId, String leaseId, LocalDateTime expiresAt);
+
+    /**
+     * Drops an active lease while keeping its units out of stock, turning the hold into a sale.
+     *
+     * @return the updated product, or empty if there is no such active lease
+     */
+    Optional<Product> confirmLease(String productId, String leaseId);
+
+    /**
+     * Drops a lease and returns its units to stock, in one update, so units are only ever returned once.
+     *
+     * @return the updated product, or empty if the product does not carry the lease
+     */
+    Optional<Product> releaseLease(String productId, String leaseId);
+
+    /**
+     * Finds up to {@code limit} products holding at least one lease that expired before {@code now}.
+     */
+    List<String> findIdsWithExpiredLeases(LocalDateTime now, int limit);
+
+    /**
+     * Returns the stock of every lease that expired before {@code now} on the given products.
+     *
+     * @return the number of products that were updated
+     */
+    long releaseExpiredLeases(Collection<String> productIds, LocalDateTime now);
+}
@@ -0,0 +1,417 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductReservation;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    private static final int EXPORT_CURSOR_BATCH_SIZE = 500;
+    /** Every write bumps the version; documents that predate the field start from 0. */
+    private static final AggregationExpression NEXT_VERSION = context ->
+            new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Product> findAfter(String afterId, int limit) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Optional<Product> findVersionById(String productId) {
+        Query query = new Query(Criteria.where("id").is(productId));
+        query.fields().include("version", "updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Product.class));
+    }
+
+    @Override
+    public Page<Product> findPage(Criteria criteria, Pageable pageable, Collection<String> fields) {
+        Query query = new Query(criteria).with(pageable);
+        query.fields().include(fields.toArray(String[]::new));
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        // Skips the count when the page alone shows the total, e.g. a short first or last page.
+        return PageableExecutionUtils.getPage(products, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Product.class));
+    }
+
+    @Override
+    public Stream<Product> streamUpdatedSince(LocalDateTime updatedSince) {
+        Query query = new Query();
+        if (updatedSince != null) {
+            query.addCriteria(Criteria.where("updatedAt").gte(updatedSince));
+        }
+        // Sorted on updatedAt alone so the order comes straight off its index instead of an in-memory sort.
+        query.with(Sort.by(Sort.Direction.ASC, "updatedAt")).cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
+        query.fields().exclude("reservations");
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamFields(Collection<String> fields) {
+        Query query = new Query().cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
+        query.fields().include(fields.toArray(String[]::new));
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Product> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class).insert(products).execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+
+    @Override
+    public Optional<Product> updateFields(String productId, Long expectedVersion, Map<String, Object> fields) {
+        Criteria criteria = Criteria.where("id").is(productId);
+        if (expectedVersion != null) {
+            // Documents that predate the version field are at version 0.
+            criteria = expectedVersion == 0
+                    ? criteria.orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                    : criteria.and("version").is(expectedVersion);
+        }
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1L);
+        fields.forEach(update::set);
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), update, RETURN_NEW, Product.class));
+    }
+
+    @Override
+    public ProductFacetResult browse(ProductBrowseFilter filter, Pageable pageable, List<Double> priceBoundaries) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.ASC, "id");
+        // $bucket needs an upper boundary; MAX_VALUE makes the last configured bound open-ended.
+        Object[] boundaries = Stream.concat(priceBoundaries.stream(), Stream.of(Double.MAX_VALUE)).toArray();
+        FacetOperation facets = Aggregation
+                .facet(Aggregation.sort(sort), Aggregation.skip(pageable.getOffset()), Aggregation.limit(pageable.getPageSize()))
+                .as("products")
+                .and(Aggregation.count().as("total")).as("total")
+                .and(Aggregation.sortByCount("category")).as("categories")
+                .and(Aggregation.sortByCount("medium")).as("mediums")
+                .and(Aggregation.sortByCount("style")).as("styles")
+                .and(Aggregation.bucket("price").withBoundaries(boundaries).withDefaultBucket("other")
+                        .andOutputCount().as("count")).as("priceBuckets");
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(browseCriteria(filter)), facets);
+        Document facetDocument = mongoTemplate.aggregate(aggregation, Product.class, Document.class).getUniqueMappedResult();
+
+        ProductFacetResult result = new ProductFacetResult();
+        result.setProducts(facetDocument.getList("products", Document.class).stream()
+                .map(document -> mongoTemplate.getConverter().read(Product.class, document))
+                .toList());
+        List<Document> total = facetDocument.getList("total", Document.class);
+        result.setTotal(total.isEmpty() ? 0 : ((Number) total.get(0).get("total")).longValue());
+        result.setCategories(counts(facetDocument, "categories", String::valueOf));
+        result.setMediums(counts(facetDocument, "mediums", String::valueOf));
+        result.setStyles(counts(facetDocument, "styles", String::valueOf));
+        result.setPriceBuckets(counts(facetDocument, "priceBuckets", key -> ((Number) key).doubleValue()));
+        return result;
+    }
+
+    @Override
+    public boolean reserveAll(Collection<String> productIds, String reservationId, LocalDateTime expiresAt) {
+        if (productIds.isEmpty()) {
+            return true;
+        }
+        Object now = toMongo(LocalDateTime.now());
+        Document reservation = reservation(reservationId, 1, now, toMongo(expiresAt));
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (String productId : productIds) {
+            AggregationUpdate update = decrementStock(1, now)
+                    .set("reservations").toValue(append("reservations", reservation));
+            operations.updateOne(new Query(inStock(productId, 1)), update);
+        }
+        BulkWriteResult result = operations.execute();
+        if (result.getModifiedCount() == productIds.size()) {
+            return true;
+        }
+
+        // Only the documents carrying this reservation id were decremented by us, so only those are undone.
+        releaseAll(productIds, reservationId);
+        return false;
+    }
+
+    @Override
+    public boolean confirmAll(Collection<String> productIds, String reservationId) {
+        if (productIds.isEmpty()) {
+            return true;
+        }
+        // Each product is confirmed by its own conditional update, so a hold that lapses or is swept while the
+        // batch runs is never confirmed. The entries confirmed before it are put back, so a cart is never half sold.
+        Map<String, ProductReservation> confirmed = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            Query query = new Query(activeLease(productId, reservationId));
+            Update update = new Update()
+                    .set("updatedAt", LocalDateTime.now())
+                    .inc("version", 1L)
+                    .pull("reservations", new Document("reservationId", reservationId));
+            // Returns the document as it was, which still carries the entry to restore.
+            Product before = mongoTemplate.findAndModify(query, update, Product.class);
+            if (before == null) {
+                confirmed.forEach(this::restoreReservation);
+                return false;
+            }
+            confirmed.put(productId, before.getReservations().stream()
+                    .filter(reservation -> reservationId.equals(reservation.getReservationId()))
+                    .findFirst()
+                    .orElseThrow());
+        }
+        return true;
+    }
+
+    /** Undoes a confirmation; the sweeper returns the units if the hold has expired by now. */
+    private void restoreReservation(String productId, ProductReservation reservation) {
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1L)
+                .push("reservations", reservation);
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(productId)), update, Product.class);
+    }
+
+    @Override
+    public long releaseAll(Collection<String> productIds, String reservationId) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        Query query = new Query(Criteria.where("id").in(productIds)
+                .and("reservations.reservationId").is(reservationId));
+        AggregationUpdate update = returnStock(withReservationId(reservationId), toMongo(LocalDateTime.now()));
+        return mongoTemplate.updateMulti(query, update, Product.class).getModifiedCount();
+    }
+
+    @Override
+    public Optional<Product> leaseStock(String productId, String leaseId, int quantity, LocalDateTime expiresAt) {
+        Object now = toMongo(LocalDateTime.now());
+        Document lease = reservation(leaseId, quantity, now, toMongo(expiresAt));
+        Query query = new Query(inStock(productId, quantity));
+        AggregationUpdate update = decrementStock(quantity, now)
+                .set("reservations").toValue(append("reservations", lease));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class));
+    }
+
+    @Override
+    public Optional<Product> renewLease(String productId, String leaseId, LocalDateTime expiresAt) {
+        Query query = new Query(activeLease(productId, leaseId));
+        Update update = new Update()
+                .set("reservations.$.expiresAt", expiresAt)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1L);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class));
+    }
+
+    @Override
+    public Optional<Product> confirmLease(String productId, String leaseId) {
+        Query query = new Query(activeLease(productId, leaseId));
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1L)
+                .pull("reservations", new Document("reservationId", leaseId));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class));
+    }
+
+    @Override
+    public Optional<Product> releaseLease(String productId, String leaseId) {
+        Query query = new Query(Criteria.where("id").is(productId).and("reservations.reservationId").is(leaseId));
+        AggregationUpdate update = returnStock(withReservationId(leaseId), toMongo(LocalDateTime.now()));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class));
+    }
+
+    @Override
+    public List<String> findIdsWithExpiredLeases(LocalDateTime now, int limit) {
+        Query query = new Query(Criteria.where("reservations.expiresAt").lt(now)).limit(limit);
+        query.fields().include("id");
+        return mongoTemplate.find(query, Product.class).stream()
+                .map(Product::getId)
+                .toList();
+    }
+
+    @Override
+    public long releaseExpiredLeases(Collection<String> productIds, LocalDateTime now) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        // Re-checking expiry in the filter keeps concurrent sweepers on other replicas from double-releasing.
+        Query query = new Query(Criteria.where("id").in(productIds).and("reservations.expiresAt").lt(now));
+        Object mongoNow = toMongo(now);
+        AggregationUpdate update = returnStock(expiredBefore(mongoNow), mongoNow);
+        return mongoTemplate.updateMulti(query, update, Product.class).getModifiedCount();
+    }
+
+    private static Criteria browseCriteria(ProductBrowseFilter filter) {
+        Criteria criteria = new Criteria();
+        if (filter.getCategory() != null) {
+            criteria.and("category").is(filter.getCategory());
+        }
+        if (filter.getMedium() != null) {
+            criteria.and("medium").is(filter.getMedium());
+        }
+        if (filter.getStyle() != null) {
+            criteria.and("style").is(filter.getStyle());
+        }
+        if (filter.getArtistId() != null) {
+            criteria.and("artistId").is(filter.getArtistId());
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            Criteria price = criteria.and("price");
+            if (filter.getMinPrice() != null) {
+                price.gte(filter.getMinPrice());
+            }
+            if (filter.getMaxPrice() != null) {
+                price.lte(filter.getMaxPrice());
+            }
+        }
+        if (filter.getAvailable() != null) {
+            criteria.and("isAvailable").is(filter.getAvailable());
+        }
+        return criteria;
+    }
+
+    /**
+     * Reads a {@code $sortByCount} or {@code $bucket} facet ({@code {_id, count}} documents) into an ordered map.
+     * Documents whose {@code _id} is {@code null} (products without that attribute) or the bucket default are skipped.
+     */
+    private static <K> Map<K, Long> counts(Document facetDocument, String facet, Function<Object, K> key) {
+        Map<K, Long> counts = new LinkedHashMap<>();
+        for (Document bucket : facetDocument.getList(facet, Document.class)) {
+            Object id = bucket.get("_id");
+            if (id != null && !"other".equals(id)) {
+                counts.put(key.apply(id), ((Number) bucket.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+
+    // Package-private so ReactiveProductRepositoryCustomImpl reserves with the very same filter and pipeline.
+    static Criteria inStock(String productId, int quantity) {
+        return Criteria.where("id").is(productId)
+                .and("isAvailable").is(true)
+                .and("stockQuantity").gte(quantity);
+    }
+
+    private static Criteria activeLease(String productId, String leaseId) {
+        return Criteria.where("id").is(productId)
+                .and("reservations").elemMatch(Criteria.where("reservationId").is(leaseId)
+                        .and("expiresAt").gt(LocalDateTime.now()));
+    }
+
+    /**
+     * Pipeline update that decrements stock and marks the product unavailable once the new stock level reaches
+     * zero. Each {@code set} is its own {@code $set} stage, so the availability stage sees the decremented value.
+     * Availability is otherwise left alone, so a product an admin disabled stays disabled.
+     */
+    static AggregationUpdate decrementStock(int quantity, Object now) {
+        AggregationExpression availability = context -> new Document("$cond", List.of(
+                new Document("$gt", List.of("$stockQuantity", 0)), "$isAvailable", false));
+        return AggregationUpdate.update()
+                .set("stockQuantity").toValue(ArithmeticOperators.valueOf("stockQuantity").subtract(quantity))
+                .set("isAvailable").toValue(availability)
+                .set("updatedAt").toValue(now)
+                .set("version").toValue(NEXT_VERSION);
+    }
+
+    static Document reservation(String reservationId, int quantity, Object now, Object expiresAt) {
+        return new Document("reservationId", reservationId)
+                .append("quantity", quantity)
+                .append("reservedAt", now)
+                .append("expiresAt", expiresAt);
+    }
+
+    /**
+     * Pipeline update that adds the quantities of all reservations matching {@code condition} back to stock and
+     * drops those reservations. The product only becomes available again when the returned units bring it back
+     * from zero stock, which is the point where a hold took it offline; otherwise availability is left alone, so a
+     * product an admin disabled stays disabled. The availability stage runs first, as it needs the old stock level.
+     * {@code condition} is evaluated against each reservation as {@code $$this}. Stock missing from legacy
+     * documents counts as zero.
+     */
+    static AggregationUpdate returnStock(Document condition, Object now) {
+        Document reservations = new Document("$ifNull", List.of("$reservations", List.of()));
+        Document stock = new Document("$ifNull", List.of("$stockQuantity", 0));
+        Document returned = new Document("$sum", new Document("$map", new Document("input",
+                new Document("$filter", new Document("input", reservations).append("cond", condition)))
+                .append("in", "$$this.quantity")));
+        AggregationExpression availability = context -> new Document("$cond", List.of(
+                new Document("$and", List.of(
+                        new Document("$lte", List.of(stock, 0)),
+                        new Document("$gt", List.of(new Document("$add", List.of(stock, returned)), 0)))),
+                true, "$isAvailable"));
+        AggregationExpression returnedQuantity = context -> new Document("$add", List.of(stock, returned));
+        AggregationExpression remainingReservations = context -> new Document("$filter",
+                new Document("input", reservations).append("cond", new Document("$not", List.of(condition))));
+        return AggregationUpdate.update()
+                .set("isAvailable").toValue(availability)
+                .set("stockQuantity").toValue(returnedQuantity)
+                .set("reservations").toValue(remainingReservations)
+                .set("updatedAt").toValue(now)
+                .set("version").toValue(NEXT_VERSION);
+    }
+
+    static Document withReservationId(String reservationId) {
+        return new Document("$eq", List.of("$$this.reservationId", reservationId));
+    }
+
+    /** Reservations without an expiry, written before batch reservations had one, never match. */
+    private static Document expiredBefore(Object now) {
+        return new Document("$and", List.of(
+                new Document("$ifNull", List.of("$$this.expiresAt", false)),
+                new Document("$lt", List.of("$$this.expiresAt", now))));
+    }
+
+    static AggregationExpression append(String arrayField, Document element) {
+        return context -> new Document("$concatArrays", List.of(
+                new Document("$ifNull", List.of("$" + arrayField, List.of())),
+                List.of(element)));
+    }
+
+    /**
+     * Pipeline stages bypass the entity converter, so timestamps are converted up front to match the
+     * representation used for {@code updatedAt} everywhere else.
+     */
+    private Object toMongo(LocalDateTime dateTime) {
+        return mongoTemplate.getConverter().convertToMongoType(dateTime);
+    }
+}
@@ -0,0 +1,30 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link ProductRepository} for the reactive profile. Page contents and totals are
+ * separate queries so the service can run them concurrently.
+ */
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String>, ReactiveProductRepositoryCustom {
+    Flux<Product> findAllBy(Pageable pageable);
+
+    Flux<Product> findByArtistId(String artistId, Pageable pageable);
+    Mono<Long> countByArtistId(String artistId);
+
+    Flux<Product> findByCategory(String category, Pageable pageable);
+    Mono<Long> countByCategory(String category);
+
+    @Query("{'price': {$gte: ?0, $lte: ?1}}")
+    Flux<Product> findByPriceRange(Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query(value = "{'price': {$gte: ?0, $lte: ?1}}", count = true)
+    Mono<Long> countByPriceRange(Double minPrice, Double maxPrice);
+}
@@ -0,0 +1,21 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface ReactiveProductRepositoryCustom {
+
+    /**
+     * Same atomic conditional decrement as {@link ProductRepositoryCustom#leaseStock}; completes empty when the
+     * product does not exist or has too little stock.
+     */
+    Mono<Product> reserveStock(String productId, String reservationId, int quantity, LocalDateTime expiresAt);
+
+    /**
+     * Same as {@link ProductRepositoryCustom#releaseLease}; completes empty when the product does not carry the
+     * reservation.
+     */
+    Mono<Product> releaseStock(String productId, String reservationId);
+}
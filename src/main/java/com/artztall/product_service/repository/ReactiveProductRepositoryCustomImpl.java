@@ -0,0 +1,43 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ReactiveProductRepositoryCustomImpl implements ReactiveProductRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Product> reserveStock(String productId, String reservationId, int quantity, LocalDateTime expiresAt) {
+        Query query = new Query(ProductRepositoryCustomImpl.inStock(productId, quantity));
+        Object now = toMongo(LocalDateTime.now());
+        Document reservation = ProductRepositoryCustomImpl.reservation(reservationId, quantity, now, toMongo(expiresAt));
+        AggregationUpdate update = ProductRepositoryCustomImpl.decrementStock(quantity, now)
+                .set("reservations").toValue(ProductRepositoryCustomImpl.append("reservations", reservation));
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class);
+    }
+
+    @Override
+    public Mono<Product> releaseStock(String productId, String reservationId) {
+        Query query = new Query(Criteria.where("id").is(productId).and("reservations.reservationId").is(reservationId));
+        AggregationUpdate update = ProductRepositoryCustomImpl.returnStock(
+                ProductRepositoryCustomImpl.withReservationId(reservationId), toMongo(LocalDateTime.now()));
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, Product.class);
+    }
+
+    private Object toMongo(LocalDateTime dateTime) {
+        return mongoTemplate.getConverter().convertToMongoType(dateTime);
+    }
+}
@@ -0,0 +1,290 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.config.SlowQueryProperties;
+import com.artztall.product_service.dto.SlowQueryResponse;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the most recent Mongo commands that took longer than {@code product.slow-queries.threshold}, with their
+ * query shape, duration and the number of documents they returned. A recorded command can be explained later in
+ * {@code executionStats} mode to see how many documents and index keys it examined and which plan won.
+ * <p>
+ * Command documents are only valid while the driver delivers the event, so the query part of every watched
+ * command is copied when it starts; everything else happens only for the commands that turn out to be slow.
+ */
+@Component
+public class SlowQueryRecorder implements CommandListener {
+
+    private static final Set<String> WATCHED_COMMANDS =
+            Set.of("find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+    /** Connection and session fields the driver adds; they are neither part of the shape nor explainable. */
+    private static final Set<String> DRIVER_FIELDS =
+            Set.of("$db", "lsid", "txnNumber", "$clusterTime", "$readPreference", "readConcern", "writeConcern");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdNanos;
+    private final Map<Integer, BsonDocument> started = new ConcurrentHashMap<>();
+    private final RecordedQuery[] recorded;
+    private long nextId;
+
+    public SlowQueryRecorder(SlowQueryProperties properties) {
+        this.thresholdNanos = properties.getThreshold().toNanos();
+        this.recorded = new RecordedQuery[Math.max(1, properties.getCapacity())];
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (WATCHED_COMMANDS.contains(event.getCommandName())) {
+            started.put(event.getRequestId(), copyQuery(event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        BsonDocument command = started.remove(event.getRequestId());
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (command == null || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowQueryResponse query = new SlowQueryResponse();
+        query.setRecordedAt(LocalDateTime.now());
+        query.setCommandName(event.getCommandName());
+        query.setCollection(command.isString(event.getCommandName())
+                ? command.getString(event.getCommandName()).getValue() : null);
+        // The blocking driver reports on the thread that issued the command, so the caller is still on the stack.
+        query.setRepositoryMethod(callingRepositoryMethod());
+        query.setShape(shapeOf(command).toJson());
+        query.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        query.setDocumentsReturned(documentsReturned(event.getCommandName(), event.getResponse()));
+        record(new RecordedQuery(query, event.getDatabaseName(), command));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        started.remove(event.getRequestId());
+    }
+
+    /**
+     * The recorded commands, slowest first.
+     */
+    public synchronized List<SlowQueryResponse> getSlowQueries() {
+        List<SlowQueryResponse> queries = new ArrayList<>();
+        for (RecordedQuery query : recorded) {
+            if (query != null) {
+                queries.add(query.response);
+            }
+        }
+        queries.sort(Comparator.comparingLong(SlowQueryResponse::getDurationMillis).reversed());
+        return queries;
+    }
+
+    /**
+     * Explains a recorded command in {@code executionStats} mode and stores the outcome with it.
+     *
+     * @param runCommand runs a command document against the named database
+     * @return the recorded command with its explain figures, or empty if it is no longer held
+     */
+    public Optional<SlowQueryResponse> explain(long id, BiFunction<String, Document, Document> runCommand) {
+        RecordedQuery query = find(id);
+        if (query == null) {
+            return Optional.empty();
+        }
+        Document explain = runCommand.apply(query.databaseName, new Document("explain", query.command)
+                .append("verbosity", "executionStats"));
+        synchronized (this) {
+            Document stats = findDocument(explain, "executionStats");
+            if (stats != null) {
+                query.response.setDocumentsExamined(longValue(stats.get("totalDocsExamined")));
+                query.response.setKeysExamined(longValue(stats.get("totalKeysExamined")));
+            }
+            Document winningPlan = findDocument(explain, "winningPlan");
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+            query.response.setWinningPlan(String.join(" <- ", stages));
+            query.response.setCollectionScan(stages.stream().anyMatch(stage -> stage.startsWith("COLLSCAN")));
+        }
+        return Optional.of(query.response);
+    }
+
+    private synchronized void record(RecordedQuery query) {
+        query.response.setId(++nextId);
+        recorded[(int) (nextId % recorded.length)] = query;
+    }
+
+    private synchronized RecordedQuery find(long id) {
+        RecordedQuery query = recorded[(int) (id % recorded.length)];
+        return query != null && query.response.getId() == id ? query : null;
+    }
+
+    /**
+     * Copies what explain needs out of the command. Of a multi-statement update or delete only the first
+     * statement is kept, as explain takes a single one.
+     */
+    static BsonDocument copyQuery(BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+            if (DRIVER_FIELDS.contains(field.getKey())) {
+                continue;
+            }
+            BsonValue value = field.getValue();
+            if (("updates".equals(field.getKey()) || "deletes".equals(field.getKey())) && value.isArray()
+                    && !value.asArray().isEmpty()) {
+                value = new BsonArray(List.of(value.asArray().get(0)));
+            }
+            copy.put(field.getKey(), deepCopy(value));
+        }
+        return copy;
+    }
+
+    /**
+     * The query part of a command with every literal replaced by {@code "?"}; sorts are kept as they are.
+     */
+    static BsonDocument shapeOf(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        for (String field : List.of("filter", "query", "pipeline")) {
+            if (command.containsKey(field)) {
+                shape.put(field, redact(command.get(field)));
+            }
+        }
+        for (String statements : List.of("updates", "deletes")) {
+            if (command.containsKey(statements) && command.get(statements).isArray()
+                    && !command.getArray(statements).isEmpty()) {
+                shape.put("q", redact(command.getArray(statements).get(0).asDocument().get("q")));
+            }
+        }
+        if (command.containsKey("sort")) {
+            shape.put("sort", command.get("sort"));
+        }
+        return shape;
+    }
+
+    private static BsonValue redact(BsonValue value) {
+        if (value == null) {
+            return new BsonString("?");
+        }
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> redacted.put(key, redact(nested)));
+            return redacted;
+        }
+        // Arrays of documents ($and, $or, pipelines) keep their structure; arrays of literals ($in) do not.
+        if (value.isArray() && !value.asArray().isEmpty() && value.asArray().get(0).isDocument()) {
+            BsonArray redacted = new BsonArray();
+            value.asArray().forEach(element -> redacted.add(redact(element)));
+            return redacted;
+        }
+        return new BsonString("?");
+    }
+
+    private static BsonValue deepCopy(BsonValue value) {
+        if (value.isDocument()) {
+            return value.asDocument().clone();
+        }
+        if (value.isArray()) {
+            return value.asArray().clone();
+        }
+        return value;
+    }
+
+    private static Long documentsReturned(String commandName, BsonDocument response) {
+        if (response.isDocument("cursor")) {
+            // Only the first batch is known here; later batches arrive as separate getMore commands.
+            BsonDocument cursor = response.getDocument("cursor");
+            return cursor.isArray("firstBatch") ? (long) cursor.getArray("firstBatch").size() : null;
+        }
+        if ("findAndModify".equals(commandName)) {
+            return response.isDocument("value") ? 1L : 0L;
+        }
+        if ("distinct".equals(commandName) && response.isArray("values")) {
+            return (long) response.getArray("values").size();
+        }
+        return response.isNumber("n") ? response.getNumber("n").longValue() : null;
+    }
+
+    private static String callingRepositoryMethod() {
+        // The outermost repository frame is the public method called through the repository proxy.
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> ProductRepository.class.isAssignableFrom(frame.getDeclaringClass())
+                        || ProductRepositoryCustom.class.isAssignableFrom(frame.getDeclaringClass()))
+                .reduce((inner, outer) -> outer)
+                .map(frame -> "ProductRepository." + frame.getMethodName())
+                .orElse(null));
+    }
+
+    private static Document findDocument(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object value : document.values()) {
+                Document found = findDocument(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                Document found = findDocument(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void collectStages(Document plan, List<String> stages) {
+        if (plan == null) {
+            return;
+        }
+        Object stage = plan.get("stage");
+        if (stage != null) {
+            stages.add(plan.get("indexName") != null ? stage + " " + plan.get("indexName") : String.valueOf(stage));
+        }
+        if (plan.get("inputStage") instanceof Document input) {
+            collectStages(input, stages);
+        }
+        if (plan.get("inputStages") instanceof List<?> inputs) {
+            inputs.stream().filter(Document.class::isInstance).forEach(input -> collectStages((Document) input, stages));
+        }
+        if (plan.get("queryPlan") instanceof Document queryPlan) {
+            collectStages(queryPlan, stages);
+        }
+    }
+
+    private static Long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static final class RecordedQuery {
+        private final SlowQueryResponse response;
+        private final String databaseName;
+        private final BsonDocument command;
+
+        private RecordedQuery(SlowQueryResponse response, String databaseName, BsonDocument command) {
+            this.response = response;
+            this.databaseName = databaseName;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.artztall.product_service.service;
+
+import java.util.Arrays;
+
+/**
+ * Prices of a set of products kept in one sorted {@code double[]}, so that the number of prices in any range
+ * is the difference of two binary searches. Adding or removing a single price shifts the tail of the array,
+ * one memory move that is proportional to the number of prices.
+ * <p>
+ * Filling the index that way would be quadratic, so a bulk load appends unsorted and sorts once at the end
+ * (see {@link #startBulkLoad()}).
+ * <p>
+ * Not thread-safe; {@link ProductStatsView} guards it.
+ */
+final class PriceIndex {
+
+    private double[] prices = new double[8];
+    private int size;
+    private boolean sorted = true;
+
+    void add(double price) {
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+        }
+        if (!sorted) {
+            prices[size++] = price;
+            return;
+        }
+        int at = upperBound(price);
+        System.arraycopy(prices, at, prices, at + 1, size - at);
+        prices[at] = price;
+        size++;
+    }
+
+    void remove(double price) {
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                if (prices[i] == price) {
+                    prices[i] = prices[--size];
+                    return;
+                }
+            }
+            return;
+        }
+        int at = lowerBound(price);
+        if (at < size && prices[at] == price) {
+            System.arraycopy(prices, at + 1, prices, at, size - at - 1);
+            size--;
+        }
+    }
+
+    void clear() {
+        prices = new double[8];
+        size = 0;
+    }
+
+    /**
+     * Appends prices unsorted until {@link #sort()}, so loading n prices costs one O(n log n) sort. Reads sort
+     * first, so they stay correct if they come in between.
+     */
+    void startBulkLoad() {
+        sorted = false;
+    }
+
+    /** Ends a bulk load. */
+    void sort() {
+        if (!sorted) {
+            Arrays.sort(prices, 0, size);
+            sorted = true;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double min() {
+        sort();
+        return prices[0];
+    }
+
+    double max() {
+        sort();
+        return prices[size - 1];
+    }
+
+    /**
+     * Number of prices {@code p} with {@code from <= p < to}.
+     */
+    int countBetween(double from, double to) {
+        sort();
+        return Math.max(0, lowerBound(to) - lowerBound(from));
+    }
+
+    /**
+     * Number of prices {@code p} with {@code from <= p <= to}.
+     */
+    int countBetweenInclusive(double from, double to) {
+        sort();
+        return Math.max(0, upperBound(to) - lowerBound(from));
+    }
+
+    /** Index of the first price not below {@code price}. */
+    private int lowerBound(double price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Index of the first price above {@code price}. */
+    private int upperBound(double price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
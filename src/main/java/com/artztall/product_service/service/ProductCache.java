@@ -0,0 +1,91 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.dto.CacheStatsResponse;
+import com.artztall.product_service.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded per-node cache of product responses keyed by product id.
+ * <p>
+ * Writers invalidate rather than overwrite entries: an invalidation that races with a load for the same
+ * key removes the pending load, whose result is then handed to its waiting readers but never cached, so a
+ * reader can never repopulate the cache with a document that was read before the write.
+ * <p>
+ * Loads run on the calling thread outside of any lock; concurrent readers of the same key wait on the pending
+ * future. A loader that blocks inside a map compute would hold a monitor and pin a virtual thread to its
+ * carrier for the whole database round trip.
+ */
+@Component
+public class ProductCache {
+
+    private final AsyncCache<String, ProductResponse> cache;
+
+    public ProductCache(ProductCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public ProductResponse get(String productId, Function<String, ProductResponse> loader) {
+        CompletableFuture<ProductResponse> load = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> cached = cache.get(productId, (id, executor) -> load);
+        if (cached != load) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ProductResponse response = loader.apply(productId);
+            load.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            // A failed future is dropped from the cache, so the next reader retries the load.
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached response without loading it on a miss, for callers that cannot block on a load.
+     */
+    public ProductResponse getIfPresent(String productId) {
+        CompletableFuture<ProductResponse> cached = cache.getIfPresent(productId);
+        return cached != null && cached.isDone() && !cached.isCompletedExceptionally() ? cached.join() : null;
+    }
+
+    public void invalidate(String productId) {
+        cache.synchronous().invalidate(productId);
+    }
+
+    public void invalidateAll(Collection<String> productIds) {
+        cache.synchronous().invalidateAll(productIds);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.synchronous().stats();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setSize(cache.synchronous().estimatedSize());
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setEvictionCount(stats.evictionCount());
+        response.setHitRate(stats.hitRate());
+        return response;
+    }
+}
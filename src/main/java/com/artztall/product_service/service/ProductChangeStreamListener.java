@@ -0,0 +1,192 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.model.Product;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's {@link ProductCache} coherent with writes made by other replicas by evicting every product
+ * that appears in the {@code products} change stream, and applies the changed documents to the
+ * {@link ProductStatsView} and the {@link ProductSuggestIndex}.
+ * <p>
+ * The resume token of the last processed event is kept so that a dropped connection resumes exactly where it
+ * left off, except after a drop, rename or invalidate, which close the stream for good: the next one starts
+ * from now with the cache and views dropped. The token is deliberately not persisted: a restarted node starts
+ * with an empty cache, so events from before the restart cannot leave anything stale behind.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.cache.change-stream-enabled", havingValue = "true", matchIfMissing = true)
+public class ProductChangeStreamListener {
+
+    private static final long MAX_AWAIT_MILLIS = 1_000;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final ProductStatsView statsView;
+    private final ProductSuggestIndex suggestIndex;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private volatile BsonDocument resumeToken;
+    private Thread worker;
+
+    public ProductChangeStreamListener(MongoTemplate mongoTemplate, ProductCache productCache,
+                                       ProductStatsView statsView, ProductSuggestIndex suggestIndex,
+                                       @Value("${product.cache.change-stream-retry-delay:PT5S}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = productCache;
+        this.statsView = statsView;
+        this.suggestIndex = suggestIndex;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "product-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(MAX_AWAIT_MILLIS * 2);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = watch().cursor()) {
+                // Anything cached before the stream was (re)opened may have missed events.
+                if (resumeToken == null) {
+                    productCache.invalidateAll();
+                }
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        process(change);
+                        if (endsStream(change.getOperationType())) {
+                            // The server has closed this stream; open a new one from now rather than resuming.
+                            break;
+                        }
+                    }
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Anything else ends this stream but not the worker, which reopens it from the last position.
+                if (!running) {
+                    return;
+                }
+                if (e instanceof MongoException mongo && mongo.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // The oplog rolled past our position; start over from now with an empty cache and views.
+                    resumeToken = null;
+                    statsView.invalidate();
+                    suggestIndex.invalidate();
+                }
+                log.warn("Product change stream failed, retrying in {}: {}", retryDelay, e.getMessage());
+                if (!sleep(retryDelay)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private ChangeStreamIterable<Document> watch() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .watch()
+                // Updates carry the current document, which the statistics view and suggest index need.
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        return resumeToken == null ? stream : stream.resumeAfter(resumeToken);
+    }
+
+    /**
+     * Applies one event. One that cannot be applied is skipped so the stream keeps going, but the cache and
+     * views may have missed it, so they are dropped and rebuilt.
+     */
+    void process(ChangeStreamDocument<Document> change) {
+        try {
+            onChange(change);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply product change {}, dropping cache and views: {}", change.getDocumentKey(),
+                    e.getMessage(), e);
+            productCache.invalidateAll();
+            statsView.invalidate();
+            suggestIndex.invalidate();
+        }
+    }
+
+    void onChange(ChangeStreamDocument<Document> change) {
+        OperationType operationType = change.getOperationType();
+        if (endsStream(operationType)) {
+            // resumeAfter is rejected past an invalidate, so the next stream starts from now.
+            resumeToken = null;
+            productCache.invalidateAll();
+            statsView.invalidate();
+            suggestIndex.invalidate();
+            return;
+        }
+        BsonDocument documentKey = change.getDocumentKey();
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return;
+        }
+        String productId = toProductId(documentKey.get("_id"));
+        productCache.invalidate(productId);
+        if (operationType == OperationType.DELETE) {
+            statsView.remove(productId);
+            suggestIndex.remove(productId);
+        } else if (change.getFullDocument() != null) {
+            // Absent when the product was deleted before the update was looked up; its delete event follows.
+            Product product = mongoTemplate.getConverter().read(Product.class, change.getFullDocument());
+            statsView.apply(product);
+            suggestIndex.apply(product);
+        }
+    }
+
+    private static boolean endsStream(OperationType operationType) {
+        return operationType == OperationType.DROP || operationType == OperationType.RENAME
+                || operationType == OperationType.DROP_DATABASE || operationType == OperationType.INVALIDATE;
+    }
+
+    private static String toProductId(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
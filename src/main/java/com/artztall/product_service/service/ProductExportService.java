@@ -0,0 +1,68 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog as NDJSON straight from a Mongo cursor: one product is mapped and serialized at a time,
+ * so heap use does not grow with the catalog.
+ */
+@Service
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter responseWriter;
+    private final int flushInterval;
+
+    public ProductExportService(ProductRepository productRepository, ProductMapper productMapper,
+                                ObjectMapper objectMapper,
+                                @Value("${product.export.flush-interval:500}") int flushInterval) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.responseWriter = objectMapper.writerFor(ProductResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Writes every product updated at or after {@code updatedSince} (all products when {@code null}) to
+     * {@code out}, one JSON object per line, in {@code updatedAt} order. {@code out} is flushed every
+     * {@code product.export.flush-interval} products but not closed.
+     *
+     * @return the number of products written
+     */
+    public long exportNdjson(LocalDateTime updatedSince, OutputStream out) throws IOException {
+        try (Stream<Product> products = productRepository.streamUpdatedSince(updatedSince);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long written = 0;
+            Iterator<Product> cursor = products.iterator();
+            while (cursor.hasNext()) {
+                responseWriter.writeValue(generator, productMapper.mapToProductResponse(cursor.next()));
+                generator.writeRaw('\n');
+                if (++written % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+            return written;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.ProductImportError;
+import com.artztall.product_service.dto.ProductImportResponse;
+import com.artztall.product_service.dto.ProductRequest;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams product requests out of an NDJSON or JSON-array body and writes them in unordered batches, so only
+ * one batch is ever held in memory and one bad line does not stop the rest of the import.
+ */
+@Service
+public class ProductImportService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductStatsView statsView;
+    private final ProductSuggestIndex suggestIndex;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+
+    public ProductImportService(ProductRepository productRepository, ProductMapper productMapper,
+                                ProductStatsView statsView, ProductSuggestIndex suggestIndex,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.statsView = statsView;
+        this.suggestIndex = suggestIndex;
+        this.requestReader = objectMapper.readerFor(ProductRequest.class);
+        this.batchSize = batchSize;
+    }
+
+    public ProductImportResponse importNdjson(InputStream body, String artistId) throws IOException {
+        Batch batch = new Batch(artistId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(lineNumber, requestReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.reject(lineNumber, e.getOriginalMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    public ProductImportResponse importJsonArray(InputStream body, String artistId) throws IOException {
+        Batch batch = new Batch(artistId);
+        long position = 0;
+        try (MappingIterator<ProductRequest> requests = requestReader.readValues(body)) {
+            while (true) {
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    position++;
+                    batch.add(position, requests.nextValue());
+                } catch (JsonParseException e) {
+                    // Malformed JSON leaves no reliable way to find the next element.
+                    batch.reject(position, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonProcessingException e) {
+                    batch.reject(position, e.getOriginalMessage());
+                }
+            }
+        }
+        return batch.finish();
+    }
+
+    private static String validate(ProductRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "name is required";
+        }
+        if (request.getPrice() < 0) {
+            return "price must not be negative";
+        }
+        if (request.getStockQuantity() != null && request.getStockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        return null;
+    }
+
+    private class Batch {
+        private final String artistId;
+        private final ProductImportResponse response = new ProductImportResponse();
+        private List<Product> products = new ArrayList<>(batchSize);
+        private List<Long> lines = new ArrayList<>(batchSize);
+
+        Batch(String artistId) {
+            this.artistId = artistId;
+        }
+
+        void add(long line, ProductRequest request) {
+            String error = validate(request);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            response.setTotal(response.getTotal() + 1);
+            Product product = productMapper.mapToNewProduct(request, artistId);
+            // Assigned up front so ids are known even for a partially failed batch.
+            product.setId(new ObjectId().toHexString());
+            products.add(product);
+            lines.add(line);
+            if (products.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            response.setTotal(response.getTotal() + 1);
+            response.setFailed(response.getFailed() + 1);
+            response.getErrors().add(new ProductImportError(line, message));
+        }
+
+        ProductImportResponse finish() {
+            flush();
+            return response;
+        }
+
+        private void flush() {
+            if (products.isEmpty()) {
+                return;
+            }
+            Map<Integer, String> failures = productRepository.insertUnordered(products);
+            failures.forEach((index, message) -> {
+                response.setFailed(response.getFailed() + 1);
+                response.getErrors().add(new ProductImportError(lines.get(index), message));
+            });
+            response.setImported(response.getImported() + products.size() - failures.size());
+            // The inserted documents are exactly the ones built here, so they are applied without a re-read.
+            for (int i = 0; i < products.size(); i++) {
+                if (!failures.containsKey(i)) {
+                    statsView.apply(products.get(i));
+                    suggestIndex.apply(products.get(i));
+                }
+            }
+            products = new ArrayList<>(batchSize);
+            lines = new ArrayList<>(batchSize);
+        }
+    }
+}
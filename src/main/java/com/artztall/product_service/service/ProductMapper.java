@@ -0,0 +1,162 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.ProductDimensionsDTO;
+import com.artztall.product_service.dto.ProductPatchRequest;
+import com.artztall.product_service.dto.ProductRequest;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.exception.ReservationLeaseNotFoundException;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductDimensions;
+import com.artztall.product_service.model.ProductReservation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ProductMapper {
+
+    /**
+     * Maps a request to a new, not yet persisted product owned by {@code artistId}.
+     */
+    public Product mapToNewProduct(ProductRequest productRequest, String artistId) {
+        Product product = mapToProduct(productRequest);
+        LocalDateTime now = LocalDateTime.now();
+        product.setArtistId(artistId);
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        if (product.getStockQuantity() == null) {
+            // A product without an explicit quantity is a one-off original.
+            product.setStockQuantity(1);
+        }
+        product.setAvailable(product.getStockQuantity() > 0);
+        return product;
+    }
+
+    public Product mapToProduct(ProductRequest productRequest){
+        Product product = new Product();
+        product.setName(productRequest.getName());
+        product.setDescription(productRequest.getDescription());
+        product.setPrice(productRequest.getPrice());
+        product.setCategory(productRequest.getCategory());
+        product.setTags(productRequest.getTags());
+        product.setImageUrl(productRequest.getImageUrl());
+        product.setStockQuantity(productRequest.getStockQuantity());
+        product.setDimensions(mapToProductDimensions(productRequest.getDimensions()));
+        product.setMedium(productRequest.getMedium());
+        product.setStyle(productRequest.getStyle());
+        return product;
+    }
+
+    private ProductDimensions mapToProductDimensions(ProductDimensionsDTO dimensionsDTO) {
+        if (dimensionsDTO == null) return null;
+        ProductDimensions dimensions = new ProductDimensions();
+        dimensions.setLength(dimensionsDTO.getLength());
+        dimensions.setWidth(dimensionsDTO.getWidth());
+        dimensions.setUnit(dimensionsDTO.getUnit());
+        return dimensions;
+    }
+
+    /**
+     * Maps a full update to the document fields it replaces. Stock is left alone when the request omits it;
+     * otherwise availability is derived from it, as on creation.
+     */
+    public Map<String, Object> mapToUpdateFields(ProductRequest productRequest) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", productRequest.getName());
+        fields.put("description", productRequest.getDescription());
+        fields.put("price", productRequest.getPrice());
+        fields.put("category", productRequest.getCategory());
+        fields.put("tags", productRequest.getTags());
+        fields.put("imageUrl", productRequest.getImageUrl());
+        fields.put("dimensions", mapToProductDimensions(productRequest.getDimensions()));
+        fields.put("medium", productRequest.getMedium());
+        fields.put("style", productRequest.getStyle());
+        putStock(fields, productRequest.getStockQuantity());
+        return fields;
+    }
+
+    /**
+     * Maps a partial update to the document fields it changes: only those present in the request.
+     */
+    public Map<String, Object> mapToPatchFields(ProductPatchRequest patchRequest) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        putIfPresent(fields, "name", patchRequest.getName());
+        putIfPresent(fields, "description", patchRequest.getDescription());
+        putIfPresent(fields, "price", patchRequest.getPrice());
+        putIfPresent(fields, "category", patchRequest.getCategory());
+        putIfPresent(fields, "tags", patchRequest.getTags());
+        putIfPresent(fields, "imageUrl", patchRequest.getImageUrl());
+        putIfPresent(fields, "dimensions", mapToProductDimensions(patchRequest.getDimensions()));
+        putIfPresent(fields, "medium", patchRequest.getMedium());
+        putIfPresent(fields, "style", patchRequest.getStyle());
+        putStock(fields, patchRequest.getStockQuantity());
+        return fields;
+    }
+
+    private static void putIfPresent(Map<String, Object> fields, String field, Object value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+
+    private static void putStock(Map<String, Object> fields, Integer stockQuantity) {
+        if (stockQuantity != null) {
+            fields.put("stockQuantity", stockQuantity);
+            fields.put("isAvailable", stockQuantity > 0);
+        }
+    }
+
+    public static long versionOf(Product product) {
+        return product.getVersion() == null ? 0 : product.getVersion();
+    }
+
+    public ProductResponse mapToProductResponse(Product product) {
+        ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setPrice(product.getPrice());
+        response.setArtistId(product.getArtistId());
+        response.setCategory(product.getCategory());
+        response.setTags(product.getTags());
+        response.setImageUrl(product.getImageUrl());
+        response.setStockQuantity(product.getStockQuantity());
+        response.setCreatedAt(product.getCreatedAt());
+        response.setUpdatedAt(product.getUpdatedAt());
+        response.setAvailable(product.isAvailable());
+        response.setDimensions(mapToProductDimensionsDTO(product.getDimensions()));
+        response.setMedium(product.getMedium());
+        response.setStyle(product.getStyle());
+        response.setVersion(versionOf(product));
+        return response;
+    }
+
+
+    private ProductDimensionsDTO mapToProductDimensionsDTO(ProductDimensions dimensions) {
+        if (dimensions == null) return null;
+        ProductDimensionsDTO dimensionsDTO = new ProductDimensionsDTO();
+        dimensionsDTO.setLength(dimensions.getLength());
+        dimensionsDTO.setWidth(dimensions.getWidth());
+        dimensionsDTO.setUnit(dimensions.getUnit());
+        return dimensionsDTO;
+    }
+
+    /**
+     * Maps a product to the response for one of its leases, read from the product's reservation entries.
+     */
+    public ReservationLeaseResponse mapToLeaseResponse(Product product, String leaseId) {
+        ProductReservation lease = product.getReservations().stream()
+                .filter(reservation -> leaseId.equals(reservation.getReservationId()))
+                .findFirst()
+                .orElseThrow(() -> new ReservationLeaseNotFoundException(product.getId(), leaseId));
+        ReservationLeaseResponse response = new ReservationLeaseResponse();
+        response.setLeaseId(leaseId);
+        response.setQuantity(lease.getQuantity());
+        response.setExpiresAt(lease.getExpiresAt());
+        response.setProduct(mapToProductResponse(product));
+        return response;
+    }
+}
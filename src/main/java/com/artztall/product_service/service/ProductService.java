@@ -1,25 +1,54 @@
 package com.artztall.product_service.service;
 
+import com.artztall.product_service.dto.BulkReservationResponse;
+import com.artztall.product_service.dto.CursorPageResponse;
+import com.artztall.product_service.dto.PriceHistogramResponse;
+import com.artztall.product_service.dto.ProductBatchResponse;
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.dto.ProductBrowseResponse;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductPatchRequest;
 import com.artztall.product_service.dto.ProductRequest;
 import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ProductStatsResponse;
+import com.artztall.product_service.dto.ProductVersion;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.dto.SuggestionResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.util.List;
 
 public interface ProductService {
     ProductResponse createProduct(ProductRequest product, String artistId);
-    ProductResponse updateProduct(String id, ProductRequest product);
+    ProductResponse updateProduct(String id, ProductRequest product, Long expectedVersion);
+    ProductResponse patchProduct(String id, ProductPatchRequest patch, Long expectedVersion);
 
     void deleteProduct(String id);
     ProductResponse getProductById(String id);
-    Page<ProductResponse> getAllProducts(Pageable pageable);
-    List<ProductResponse> getProductsByArtist(String artistId);
-    List<ProductResponse> getProductsByCategory(String category);
-    List<ProductResponse> getProductsByPriceRange(Double minPrice, Double maxPrice);
+    ProductVersion getProductVersion(String id);
+    ProductBatchResponse getProductsByIds(List<String> ids);
+    Page<ProductResponse> getAllProducts(Pageable pageable, ProductFields fields);
+    CursorPageResponse getProductFeed(String cursor, int size);
+    Page<ProductResponse> getProductsByArtist(String artistId, Pageable pageable, ProductFields fields);
+    Page<ProductResponse> getProductsByCategory(String category, Pageable pageable, ProductFields fields);
+    Page<ProductResponse> getProductsByPriceRange(Double minPrice, Double maxPrice, Pageable pageable, ProductFields fields);
+    ProductStatsResponse getArtistStats(String artistId);
+    ProductStatsResponse getCategoryStats(String category);
+    PriceHistogramResponse getPriceHistogram(String category, Double minPrice, Double maxPrice, int buckets);
+    ProductBrowseResponse browseProducts(ProductBrowseFilter filter, Pageable pageable);
     ProductResponse updateProductAvailability(String id, boolean available);
-    ProductResponse reserveProduct(String productId);
-    ProductResponse releaseProduct(String productId);
-    List<ProductResponse> searchProducts(String searchTerm);
+    ReservationLeaseResponse reserveProduct(String productId, int quantity);
+    ProductResponse releaseProduct(String productId, String reservationId);
+    BulkReservationResponse reserveProducts(List<String> productIds);
+    List<ProductResponse> confirmProducts(List<String> productIds, String reservationId);
+    List<ProductResponse> releaseProducts(List<String> productIds, String reservationId);
+    ReservationLeaseResponse leaseProduct(String productId, int quantity, Duration ttl);
+    ReservationLeaseResponse renewLease(String productId, String leaseId, Duration ttl);
+    ProductResponse confirmLease(String productId, String leaseId);
+    ProductResponse releaseLease(String productId, String leaseId);
+    Page<ProductResponse> searchProducts(String searchTerm, Pageable pageable);
+    List<SuggestionResponse> suggest(String prefix, int limit);
 
 }
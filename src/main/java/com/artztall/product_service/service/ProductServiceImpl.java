@@ -1,206 +1,445 @@
 package com.artztall.product_service.service;
 
-import com.artztall.product_service.dto.ProductDimensionsDTO;
+import com.artztall.product_service.config.ProductBrowseProperties;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.dto.BulkReservationResponse;
+import com.artztall.product_service.dto.CursorPageResponse;
+import com.artztall.product_service.dto.ProductBatchResponse;
+import com.artztall.product_service.dto.PriceBucketResponse;
+import com.artztall.product_service.dto.PriceHistogramResponse;
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.dto.ProductBrowseResponse;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductPatchRequest;
 import com.artztall.product_service.dto.ProductRequest;
 import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ProductStatsResponse;
+import com.artztall.product_service.dto.ProductVersion;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.dto.SuggestionResponse;
+import com.artztall.product_service.exception.ProductNotFoundException;
+import com.artztall.product_service.exception.ProductPreconditionFailedException;
+import com.artztall.product_service.exception.ProductReservationConflictException;
+import com.artztall.product_service.exception.ReservationLeaseNotFoundException;
 import com.artztall.product_service.model.Product;
-import com.artztall.product_service.model.ProductDimensions;
+import com.artztall.product_service.repository.ProductFacetResult;
 import com.artztall.product_service.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.inject.Inject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "product.service", description = "Latency of ProductService operations")
 public class ProductServiceImpl implements ProductService {
 
-    private final ProductRepository productRepository;
+    static final int MAX_BATCH_SIZE = 100;
+    static final int MAX_HISTOGRAM_BUCKETS = 100;
+    static final int MAX_SUGGESTIONS = ProductSuggestIndex.MAX_SUGGESTIONS;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    private final ProductRepository productRepository;
+    private final ReservationProperties reservationProperties;
+    private final ProductCache productCache;
+    private final ProductBrowseProperties browseProperties;
+    private final ProductMapper productMapper;
+    private final ProductStatsView statsView;
+    private final ProductSuggestIndex suggestIndex;
+
+    public ProductServiceImpl(ProductRepository productRepository, ReservationProperties reservationProperties,
+                              ProductCache productCache, ProductBrowseProperties browseProperties,
+                              ProductMapper productMapper, ProductStatsView statsView,
+                              ProductSuggestIndex suggestIndex) {
         this.productRepository = productRepository;
+        this.reservationProperties = reservationProperties;
+        this.productCache = productCache;
+        this.browseProperties = browseProperties;
+        this.productMapper = productMapper;
+        this.statsView = statsView;
+        this.suggestIndex = suggestIndex;
     }
 
 
     @Override
     public ProductResponse createProduct(ProductRequest productRequest, String artistId){
-        Product product = mapToProduct(productRequest);
-        product.setArtistId(artistId);
-        product.setCreatedAt(LocalDateTime.now());
-        product.setUpdatedAt(LocalDateTime.now());
-        product.setAvailable(true);
+        Product product = productMapper.mapToNewProduct(productRequest, artistId);
         Product savedProduct = productRepository.save(product);
-        return mapToProductResponse((savedProduct));
+        applyToViews(savedProduct);
+        return productMapper.mapToProductResponse((savedProduct));
     }
 
     @Override
-    public ProductResponse updateProduct(String id, ProductRequest productRequest){
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(()->new RuntimeException("Product Not Found"));
+    public ProductResponse updateProduct(String id, ProductRequest productRequest, Long expectedVersion) {
+        return updateFields(id, expectedVersion, productMapper.mapToUpdateFields(productRequest));
+    }
 
-        updateProduct(existingProduct, productRequest);
-        Product updatedProduct = productRepository.save(existingProduct);
-        return mapToProductResponse(updatedProduct);
+    @Override
+    public ProductResponse patchProduct(String id, ProductPatchRequest patchRequest, Long expectedVersion) {
+        return updateFields(id, expectedVersion, productMapper.mapToPatchFields(patchRequest));
     }
 
 
     @Override
     public void deleteProduct(String id) {
         productRepository.deleteById(id);
+        productCache.invalidate(id);
+        statsView.remove(id);
+        suggestIndex.remove(id);
     }
 
     @Override
     public ProductResponse getProductById(String id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        return mapToProductResponse(product);
+        return productCache.get(id, productId -> productRepository.findById(productId)
+                .map(productMapper::mapToProductResponse)
+                .orElseThrow(() -> new ProductNotFoundException(productId)));
     }
 
 
     @Override
-    public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(this::mapToProductResponse);
+    public ProductVersion getProductVersion(String id) {
+        ProductResponse cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return new ProductVersion(cached.getVersion(), cached.getUpdatedAt());
+        }
+        return productRepository.findVersionById(id)
+                .map(product -> new ProductVersion(ProductMapper.versionOf(product), product.getUpdatedAt()))
+                .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
     @Override
-    public List<ProductResponse> getProductsByArtist(String artistId) {
-        return productRepository.findByArtistId(artistId).stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    public ProductBatchResponse getProductsByIds(List<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("ids are required");
+        }
+        Set<String> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be fetched at once");
+        }
+        Map<String, ProductResponse> found = new HashMap<>();
+        Set<String> uncached = new LinkedHashSet<>();
+        for (String id : requested) {
+            ProductResponse cached = productCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        // One $in query for the rest. Its results are not cached: unlike a keyed load, they could overwrite an
+        // invalidation made while the query ran.
+        if (!uncached.isEmpty()) {
+            productRepository.findAllById(uncached)
+                    .forEach(product -> found.put(product.getId(), productMapper.mapToProductResponse(product)));
+        }
+
+        ProductBatchResponse response = new ProductBatchResponse();
+        response.setProducts(requested.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()));
+        response.setMissingIds(requested.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList()));
+        return response;
     }
 
     @Override
-    public List<ProductResponse> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category).stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    public Page<ProductResponse> getAllProducts(Pageable pageable, ProductFields fields) {
+        Page<Product> products = fields.isAll()
+                ? productRepository.findAll(pageable)
+                : productRepository.findPage(new Criteria(), pageable, fields.getDocumentFields());
+        return products.map(productMapper::mapToProductResponse);
     }
 
     @Override
-    public List<ProductResponse> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceRange(minPrice, maxPrice).stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse getProductFeed(String cursor, int size) {
+        // One extra document tells whether another page exists without a count query.
+        List<Product> products = productRepository.findAfter(decodeCursor(cursor), size + 1);
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+
+        CursorPageResponse response = new CursorPageResponse();
+        response.setContent(page.stream().map(productMapper::mapToProductResponse).collect(Collectors.toList()));
+        response.setHasNext(hasNext);
+        response.setNextCursor(hasNext ? encodeCursor(page.get(page.size() - 1).getId()) : null);
+        return response;
     }
 
     @Override
-    public ProductResponse updateProductAvailability(String id, boolean available) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    public Page<ProductResponse> getProductsByArtist(String artistId, Pageable pageable, ProductFields fields) {
+        Page<Product> products = fields.isAll()
+                ? productRepository.findByArtistId(artistId, pageable)
+                : productRepository.findPage(Criteria.where("artistId").is(artistId), pageable, fields.getDocumentFields());
+        return products.map(productMapper::mapToProductResponse);
+    }
 
-        product.setAvailable(available);
-        product.setUpdatedAt(LocalDateTime.now());
+    @Override
+    public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable, ProductFields fields) {
+        Page<Product> products = fields.isAll()
+                ? productRepository.findByCategory(category, pageable)
+                : productRepository.findPage(Criteria.where("category").is(category), pageable, fields.getDocumentFields());
+        return products.map(productMapper::mapToProductResponse);
+    }
 
-        Product updatedProduct = productRepository.save(product);
-        return mapToProductResponse(updatedProduct);
+    @Override
+    public Page<ProductResponse> getProductsByPriceRange(Double minPrice, Double maxPrice, Pageable pageable,
+                                                         ProductFields fields) {
+        Page<Product> products = fields.isAll()
+                ? productRepository.findByPriceRange(minPrice, maxPrice, pageable)
+                : productRepository.findPage(Criteria.where("price").gte(minPrice).lte(maxPrice), pageable,
+                        fields.getDocumentFields());
+        return products.map(productMapper::mapToProductResponse);
     }
 
+    @Override
+    public ProductStatsResponse getArtistStats(String artistId) {
+        return statsView.getArtistStats(artistId);
+    }
 
     @Override
-    public ProductResponse reserveProduct(String productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    public ProductStatsResponse getCategoryStats(String category) {
+        return statsView.getCategoryStats(category);
+    }
 
-        if (!product.isAvailable()) {
-            throw new RuntimeException("Product is not available for purchase");
+    @Override
+    public PriceHistogramResponse getPriceHistogram(String category, Double minPrice, Double maxPrice, int buckets) {
+        if (buckets < 0 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new IllegalArgumentException("Buckets must be between 0 and " + MAX_HISTOGRAM_BUCKETS);
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
         }
+        return statsView.getPriceHistogram(category, minPrice, maxPrice, buckets);
+    }
 
-        product.setAvailable(false);
-        product.setUpdatedAt(LocalDateTime.now());
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
 
-        Product updatedProduct = productRepository.save(product);
-        return mapToProductResponse(updatedProduct);
+    @Override
+    public ProductBrowseResponse browseProducts(ProductBrowseFilter filter, Pageable pageable) {
+        List<Double> boundaries = browseProperties.getPriceBuckets();
+        ProductFacetResult result = productRepository.browse(filter, pageable, boundaries);
+
+        ProductBrowseResponse response = new ProductBrowseResponse();
+        response.setContent(result.getProducts().stream().map(productMapper::mapToProductResponse).collect(Collectors.toList()));
+        response.setPage(pageable.getPageNumber());
+        response.setSize(pageable.getPageSize());
+        response.setTotalElements(result.getTotal());
+        response.setCategories(result.getCategories());
+        response.setMediums(result.getMediums());
+        response.setStyles(result.getStyles());
+        List<PriceBucketResponse> priceBuckets = new ArrayList<>();
+        for (int i = 0; i < boundaries.size(); i++) {
+            PriceBucketResponse bucket = new PriceBucketResponse();
+            bucket.setMinPrice(boundaries.get(i));
+            bucket.setMaxPrice(i + 1 < boundaries.size() ? boundaries.get(i + 1) : null);
+            bucket.setCount(result.getPriceBuckets().getOrDefault(boundaries.get(i), 0L));
+            priceBuckets.add(bucket);
+        }
+        response.setPriceBuckets(priceBuckets);
+        return response;
     }
 
     @Override
-    public ProductResponse releaseProduct(String productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    public ProductResponse updateProductAvailability(String id, boolean available) {
+        return updateFields(id, null, Map.of("isAvailable", available));
+    }
 
-        product.setAvailable(true);
-        product.setUpdatedAt(LocalDateTime.now());
 
-        Product updatedProduct = productRepository.save(product);
-        return mapToProductResponse(updatedProduct);
+    @Override
+    public ReservationLeaseResponse reserveProduct(String productId, int quantity) {
+        // A reservation is a lease with the default duration, so units only ever go back against its entry.
+        return leaseProduct(productId, quantity, null);
     }
 
     @Override
-    public List<ProductResponse> searchProducts(String searchTerm) {
-        return productRepository.searchProducts(searchTerm).stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    public ProductResponse releaseProduct(String productId, String reservationId) {
+        requireReservationId(reservationId);
+        return releaseLease(productId, reservationId);
     }
 
-    private Product mapToProduct(ProductRequest productRequest){
-        Product product = new Product();
-        product.setName(productRequest.getName());
-        product.setDescription(productRequest.getDescription());
-        product.setPrice(productRequest.getPrice());
-        product.setCategory(productRequest.getCategory());
-        product.setTags(productRequest.getTags());
-        product.setImageUrl(productRequest.getImageUrl());
-        product.setStockQuantity(productRequest.getStockQuantity());
-        product.setDimensions(mapToProductDimensions(productRequest.getDimensions()));
-        product.setMedium(productRequest.getMedium());
-        product.setStyle(productRequest.getStyle());
-        return product;
-    }
-
-    private ProductDimensions mapToProductDimensions(ProductDimensionsDTO dimensionsDTO) {
-        if (dimensionsDTO == null) return null;
-        ProductDimensions dimensions = new ProductDimensions();
-        dimensions.setLength(dimensionsDTO.getLength());
-        dimensions.setWidth(dimensionsDTO.getWidth());
-        dimensions.setUnit(dimensionsDTO.getUnit());
-        return dimensions;
-    }
-
-    private void updateProduct(Product product, ProductRequest productRequest) {
-        product.setName(productRequest.getName());
-        product.setDescription(productRequest.getDescription());
-        product.setPrice(productRequest.getPrice());
-        product.setCategory(productRequest.getCategory());
-        product.setTags(productRequest.getTags());
-        product.setImageUrl(productRequest.getImageUrl());
-        product.setStockQuantity(productRequest.getStockQuantity());
-        product.setDimensions(mapToProductDimensions(productRequest.getDimensions()));
-        product.setMedium(productRequest.getMedium());
-        product.setStyle(productRequest.getStyle());
-        product.setUpdatedAt(LocalDateTime.now());
-    }
-
-    private ProductResponse mapToProductResponse(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.setId(product.getId());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setPrice(product.getPrice());
-        response.setArtistId(product.getArtistId());
-        response.setCategory(product.getCategory());
-        response.setTags(product.getTags());
-        response.setImageUrl(product.getImageUrl());
-        response.setStockQuantity(product.getStockQuantity());
-        response.setCreatedAt(product.getCreatedAt());
-        response.setUpdatedAt(product.getUpdatedAt());
-        response.setAvailable(product.isAvailable());
-        response.setDimensions(mapToProductDimensionsDTO(product.getDimensions()));
-        response.setMedium(product.getMedium());
-        response.setStyle(product.getStyle());
+    @Override
+    public BulkReservationResponse reserveProducts(List<String> productIds) {
+        Set<String> ids = requireBatchIds(productIds);
+        String reservationId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationProperties.getLeaseTtl());
+        boolean reserved = productRepository.reserveAll(ids, reservationId, expiresAt);
+        // A rolled-back attempt still touched some of the products, so they are evicted either way.
+        productCache.invalidateAll(ids);
+        if (!reserved) {
+            throw new ProductReservationConflictException(ids);
+        }
+
+        BulkReservationResponse response = new BulkReservationResponse();
+        response.setReservationId(reservationId);
+        response.setExpiresAt(expiresAt);
+        response.setProducts(findAllResponses(ids));
         return response;
     }
 
+    @Override
+    public List<ProductResponse> confirmProducts(List<String> productIds, String reservationId) {
+        Set<String> ids = requireBatchIds(productIds);
+        requireReservationId(reservationId);
+        boolean confirmed = productRepository.confirmAll(ids, reservationId);
+        productCache.invalidateAll(ids);
+        if (!confirmed) {
+            throw new ProductReservationConflictException(ids);
+        }
+        return findAllResponses(ids);
+    }
 
-    private ProductDimensionsDTO mapToProductDimensionsDTO(ProductDimensions dimensions) {
-        if (dimensions == null) return null;
-        ProductDimensionsDTO dimensionsDTO = new ProductDimensionsDTO();
-        dimensionsDTO.setLength(dimensions.getLength());
-        dimensionsDTO.setWidth(dimensions.getWidth());
-        dimensionsDTO.setUnit(dimensions.getUnit());
-        return dimensionsDTO;
+    @Override
+    public List<ProductResponse> releaseProducts(List<String> productIds, String reservationId) {
+        Set<String> ids = requireBatchIds(productIds);
+        requireReservationId(reservationId);
+        productRepository.releaseAll(ids, reservationId);
+        productCache.invalidateAll(ids);
+        return findAllResponses(ids);
     }
-}
 
+    @Override
+    public ReservationLeaseResponse leaseProduct(String productId, int quantity, Duration ttl) {
+        requirePositive(quantity);
+        String leaseId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(leaseTtl(ttl));
+        Product product = productRepository.leaseStock(productId, leaseId, quantity, expiresAt)
+                .orElseThrow(() -> productRepository.existsById(productId)
+                        ? new ProductReservationConflictException(productId)
+                        : new ProductNotFoundException(productId));
+        productCache.invalidate(productId);
+        applyToViews(product);
+        return productMapper.mapToLeaseResponse(product, leaseId);
+    }
+
+    @Override
+    public ReservationLeaseResponse renewLease(String productId, String leaseId, Duration ttl) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(leaseTtl(ttl));
+        Product product = productRepository.renewLease(productId, leaseId, expiresAt)
+                .orElseThrow(() -> new ReservationLeaseNotFoundException(productId, leaseId));
+        productCache.invalidate(productId);
+        return productMapper.mapToLeaseResponse(product, leaseId);
+    }
+
+    @Override
+    public ProductResponse confirmLease(String productId, String leaseId) {
+        return productRepository.confirmLease(productId, leaseId)
+                .map(this::afterWrite)
+                .orElseThrow(() -> new ReservationLeaseNotFoundException(productId, leaseId));
+    }
+
+    @Override
+    public ProductResponse releaseLease(String productId, String leaseId) {
+        return productRepository.releaseLease(productId, leaseId)
+                .map(this::afterWrite)
+                .orElseThrow(() -> new ReservationLeaseNotFoundException(productId, leaseId));
+    }
+
+    @Override
+    public Page<ProductResponse> searchProducts(String searchTerm, Pageable pageable) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(searchTerm);
+        return productRepository.findAllByOrderByScoreDesc(criteria, pageable)
+                .map(productMapper::mapToProductResponse);
+    }
+
+    private static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static Set<String> requireBatchIds(List<String> productIds) {
+        // Immutable lists reject contains(null), so nulls are looked for one by one.
+        if (productIds == null || productIds.isEmpty() || productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("productIds are required");
+        }
+        Set<String> ids = new LinkedHashSet<>(productIds);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " products can be reserved at once");
+        }
+        return ids;
+    }
+
+    private static void requireReservationId(String reservationId) {
+        if (reservationId == null || reservationId.isBlank()) {
+            throw new IllegalArgumentException("reservationId is required");
+        }
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+    }
+
+    private Duration leaseTtl(Duration requested) {
+        if (requested == null) {
+            return reservationProperties.getLeaseTtl();
+        }
+        if (requested.isNegative() || requested.isZero()) {
+            throw new IllegalArgumentException("Lease duration must be positive");
+        }
+        Duration max = reservationProperties.getMaxLeaseTtl();
+        return requested.compareTo(max) > 0 ? max : requested;
+    }
+
+    /**
+     * Writes only the changed fields in place rather than saving the whole document, so concurrent stock
+     * reservations and leases on the same product are never overwritten.
+     */
+    private ProductResponse updateFields(String id, Long expectedVersion, Map<String, Object> fields) {
+        return productRepository.updateFields(id, expectedVersion, fields)
+                .map(this::afterWrite)
+                .orElseThrow(() -> expectedVersion != null && productRepository.existsById(id)
+                        ? new ProductPreconditionFailedException(id, expectedVersion)
+                        : new ProductNotFoundException(id));
+    }
+
+    private ProductResponse afterWrite(Product product) {
+        productCache.invalidate(product.getId());
+        applyToViews(product);
+        return productMapper.mapToProductResponse(product);
+    }
+
+    private void applyToViews(Product product) {
+        statsView.apply(product);
+        suggestIndex.apply(product);
+    }
+
+    private List<ProductResponse> findAllResponses(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Product> products = productRepository.findAllById(ids);
+        // Only called after bulk writes, which do not return the documents they changed.
+        products.forEach(this::applyToViews);
+        return products.stream()
+                .map(productMapper::mapToProductResponse)
+                .collect(Collectors.toList());
+    }
+}
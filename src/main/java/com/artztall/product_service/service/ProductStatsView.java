@@ -0,0 +1,250 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.PriceBucketResponse;
+import com.artztall.product_service.dto.PriceHistogramResponse;
+import com.artztall.product_service.dto.ProductStatsResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory materialized view of per-artist and per-category product statistics, so dashboards read them in
+ * constant time instead of scanning the artist's or category's products.
+ */
+@Component
+public class ProductStatsView extends ProductView<ProductStatsView.Facts> {
+
+    static final List<String> FIELDS = List.of("artistId", "category", "medium", "price", "isAvailable", "version");
+
+    private final Map<String, Stats> byArtist = new HashMap<>();
+    private final Map<String, Stats> byCategory = new HashMap<>();
+    private final Stats all = new Stats();
+    /** Prices are added unsorted while the view loads; see {@link PriceIndex#startBulkLoad()}. */
+    private boolean loading;
+
+    public ProductStatsView(ProductRepository productRepository) {
+        super(productRepository, FIELDS);
+    }
+
+    public ProductStatsResponse getArtistStats(String artistId) {
+        ensureLoaded();
+        synchronized (this) {
+            return toResponse(artistId, byArtist.get(artistId));
+        }
+    }
+
+    public ProductStatsResponse getCategoryStats(String category) {
+        ensureLoaded();
+        synchronized (this) {
+            return toResponse(category, byCategory.get(category));
+        }
+    }
+
+    /**
+     * Counts the products priced within {@code [minPrice, maxPrice]}, of one category or of all, and splits the
+     * range into {@code buckets} equal-width buckets. An omitted bound defaults to the lowest or highest price.
+     * Costs two binary searches per bucket; no document is read.
+     */
+    public PriceHistogramResponse getPriceHistogram(String category, Double minPrice, Double maxPrice, int buckets) {
+        ensureLoaded();
+        synchronized (this) {
+            Stats stats = category == null ? all : byCategory.get(category);
+            PriceHistogramResponse response = new PriceHistogramResponse();
+            response.setCategory(category);
+            response.setBuckets(new ArrayList<>());
+            if (stats == null || stats.prices.size() == 0) {
+                response.setMinPrice(minPrice);
+                response.setMaxPrice(maxPrice);
+                return response;
+            }
+            PriceIndex prices = stats.prices;
+            double from = minPrice != null ? minPrice : prices.min();
+            double to = maxPrice != null ? maxPrice : prices.max();
+            response.setMinPrice(from);
+            response.setMaxPrice(to);
+            // One bound given past the other end of the data leaves an empty range, not an inverted one.
+            if (from > to) {
+                return response;
+            }
+            response.setCount(prices.countBetweenInclusive(from, to));
+            // A single price has no width to split.
+            int bucketCount = from == to ? Math.min(buckets, 1) : buckets;
+            double width = (to - from) / Math.max(bucketCount, 1);
+            for (int i = 0; i < bucketCount; i++) {
+                boolean last = i == bucketCount - 1;
+                PriceBucketResponse bucket = new PriceBucketResponse();
+                bucket.setMinPrice(from + i * width);
+                bucket.setMaxPrice(last ? to : from + (i + 1) * width);
+                bucket.setCount(last
+                        ? prices.countBetweenInclusive(bucket.getMinPrice(), to)
+                        : prices.countBetween(bucket.getMinPrice(), bucket.getMaxPrice()));
+                response.getBuckets().add(bucket);
+            }
+            return response;
+        }
+    }
+
+    @Override
+    Facts facts(Product product) {
+        return new Facts(product);
+    }
+
+    @Override
+    long version(Facts facts) {
+        return facts.version;
+    }
+
+    @Override
+    void add(Facts facts) {
+        all.add(facts);
+        stats(byArtist, facts.artistId).add(facts);
+        stats(byCategory, facts.category).add(facts);
+    }
+
+    @Override
+    void subtract(Facts facts) {
+        all.subtract(facts);
+        subtract(byArtist, facts.artistId, facts);
+        subtract(byCategory, facts.category, facts);
+    }
+
+    @Override
+    void clear() {
+        byArtist.clear();
+        byCategory.clear();
+        all.clear();
+    }
+
+    @Override
+    void loadStarted() {
+        loading = true;
+        all.prices.startBulkLoad();
+        byArtist.values().forEach(stats -> stats.prices.startBulkLoad());
+        byCategory.values().forEach(stats -> stats.prices.startBulkLoad());
+    }
+
+    @Override
+    void loadFinished() {
+        loading = false;
+        all.prices.sort();
+        byArtist.values().forEach(stats -> stats.prices.sort());
+        byCategory.values().forEach(stats -> stats.prices.sort());
+    }
+
+    private Stats stats(Map<String, Stats> view, String key) {
+        return key == null ? new Stats() : view.computeIfAbsent(key, k -> {
+            Stats stats = new Stats();
+            if (loading) {
+                stats.prices.startBulkLoad();
+            }
+            return stats;
+        });
+    }
+
+    private static void subtract(Map<String, Stats> view, String key, Facts facts) {
+        Stats stats = key == null ? null : view.get(key);
+        if (stats != null && stats.subtract(facts) == 0) {
+            view.remove(key);
+        }
+    }
+
+    private static ProductStatsResponse toResponse(String key, Stats stats) {
+        ProductStatsResponse response = new ProductStatsResponse();
+        response.setKey(key);
+        if (stats == null) {
+            response.setCategories(Map.of());
+            response.setMediums(Map.of());
+            return response;
+        }
+        response.setCount(stats.count);
+        response.setAvailableCount(stats.availableCount);
+        response.setMinPrice(stats.prices.min());
+        response.setMaxPrice(stats.prices.max());
+        response.setAveragePrice(stats.priceSum / stats.count);
+        response.setCategories(sortedByCount(stats.categories));
+        response.setMediums(sortedByCount(stats.mediums));
+        return response;
+    }
+
+    private static Map<String, Long> sortedByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    /** The fields of one product that the statistics depend on. */
+    static final class Facts {
+        private final String artistId;
+        private final String category;
+        private final String medium;
+        private final double price;
+        private final boolean available;
+        private final long version;
+
+        private Facts(Product product) {
+            this.artistId = product.getArtistId();
+            this.category = product.getCategory();
+            this.medium = product.getMedium();
+            this.price = product.getPrice();
+            this.available = product.isAvailable();
+            this.version = ProductMapper.versionOf(product);
+        }
+    }
+
+    /**
+     * Running totals of one artist or category. All prices are kept, sorted, so the minimum and maximum stay
+     * exact when products are removed and price ranges can be counted.
+     */
+    private static final class Stats {
+        private long count;
+        private long availableCount;
+        private double priceSum;
+        private final PriceIndex prices = new PriceIndex();
+        private final Map<String, Long> categories = new HashMap<>();
+        private final Map<String, Long> mediums = new HashMap<>();
+
+        private void clear() {
+            count = 0;
+            availableCount = 0;
+            priceSum = 0;
+            prices.clear();
+            categories.clear();
+            mediums.clear();
+        }
+
+        private void add(Facts facts) {
+            count++;
+            availableCount += facts.available ? 1 : 0;
+            priceSum += facts.price;
+            prices.add(facts.price);
+            if (facts.category != null) {
+                categories.merge(facts.category, 1L, Long::sum);
+            }
+            if (facts.medium != null) {
+                mediums.merge(facts.medium, 1L, Long::sum);
+            }
+        }
+
+        private long subtract(Facts facts) {
+            count--;
+            availableCount -= facts.available ? 1 : 0;
+            priceSum -= facts.price;
+            prices.remove(facts.price);
+            if (facts.category != null) {
+                categories.computeIfPresent(facts.category, (category, n) -> n == 1 ? null : n - 1);
+            }
+            if (facts.medium != null) {
+                mediums.computeIfPresent(facts.medium, (medium, n) -> n == 1 ? null : n - 1);
+            }
+            return count;
+        }
+    }
+}
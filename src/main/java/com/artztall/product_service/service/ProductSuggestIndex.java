@@ -0,0 +1,250 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.SuggestionResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory prefix index over the tags, categories, mediums, styles and names of all products, so the search
+ * box can suggest completions on every keystroke without querying the database.
+ * <p>
+ * Every distinct text is kept once per type with the number of products carrying it, which ranks the
+ * suggestions. It is reachable from the start of each of its words, so {@code "lake"} completes
+ * {@code "Sunset over the lake"}. The keys are sorted, so the texts matching a prefix are one contiguous range,
+ * from which a bounded heap picks the most popular.
+ * <p>
+ * Short prefixes match a large part of the index, so a prefix whose range is large keeps its top
+ * {@link #MAX_SUGGESTIONS} until a text matching it changes, and later keystrokes read that list instead of the
+ * range.
+ */
+@Component
+public class ProductSuggestIndex extends ProductView<ProductSuggestIndex.Terms> {
+
+    static final List<String> FIELDS = List.of("name", "tags", "category", "medium", "style", "version");
+    /** Most suggestions one call may ask for, and the number a cached prefix keeps. */
+    static final int MAX_SUGGESTIONS = 50;
+    /** Prefixes matching more keys than this keep their top suggestions. */
+    static final int CACHE_THRESHOLD = 1_000;
+
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator.<Suggestion>comparingLong(s -> s.count)
+            .thenComparing(Comparator.<Suggestion>comparingInt(s -> s.text.length()).reversed())
+            .thenComparing(Comparator.<Suggestion, String>comparing(s -> s.normalized).reversed());
+
+    /** Suggestions by type and normalized text. */
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    /** Suggestions by each word-start suffix of their normalized text, then type and text to keep keys unique. */
+    private final TreeMap<String, Suggestion> prefixes = new TreeMap<>();
+    /** Top suggestions of the prefixes with large ranges, most popular first. */
+    private final Map<String, List<Suggestion>> topByPrefix = new HashMap<>();
+    private int longestCachedPrefix;
+
+    public ProductSuggestIndex(ProductRepository productRepository) {
+        super(productRepository, FIELDS);
+    }
+
+    /**
+     * The {@code limit} most popular texts with a word starting with {@code prefix}, ignoring case. Ties go to
+     * the shorter text.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        ensureLoaded();
+        synchronized (this) {
+            List<Suggestion> top = limit <= MAX_SUGGESTIONS ? topByPrefix.get(normalized) : null;
+            if (top == null) {
+                top = top(normalized, Math.max(limit, MAX_SUGGESTIONS));
+            }
+            return top.stream()
+                    .limit(limit)
+                    .map(ProductSuggestIndex::toResponse)
+                    .toList();
+        }
+    }
+
+    /** The {@code k} most popular texts in the range of {@code prefix}, kept if the range is large. */
+    private List<Suggestion> top(String prefix, int k) {
+        PriorityQueue<Suggestion> heap = new PriorityQueue<>(k + 1, BY_POPULARITY);
+        Set<Suggestion> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        int scanned = 0;
+        for (Suggestion suggestion : prefixes.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            scanned++;
+            // Short prefixes match mostly rare texts, which are dropped here without touching the heap.
+            if (heap.size() == k && BY_POPULARITY.compare(suggestion, heap.peek()) <= 0) {
+                continue;
+            }
+            // A text with the prefix at several word starts is reached once per word.
+            if (seen.add(suggestion)) {
+                heap.add(suggestion);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+        }
+        List<Suggestion> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(heap.poll());
+        }
+        Collections.reverse(top);
+        if (scanned > CACHE_THRESHOLD && k == MAX_SUGGESTIONS) {
+            topByPrefix.put(prefix, top);
+            longestCachedPrefix = Math.max(longestCachedPrefix, prefix.length());
+        }
+        return top;
+    }
+
+    @Override
+    Terms facts(Product product) {
+        // Keyed by type and normalized text, so a product repeating a tag counts once.
+        Map<String, String[]> terms = new LinkedHashMap<>();
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> putTerm(terms, "tag", tag));
+        }
+        putTerm(terms, "category", product.getCategory());
+        putTerm(terms, "medium", product.getMedium());
+        putTerm(terms, "style", product.getStyle());
+        putTerm(terms, "name", product.getName());
+        return new Terms(List.copyOf(terms.values()), ProductMapper.versionOf(product));
+    }
+
+    @Override
+    long version(Terms terms) {
+        return terms.version;
+    }
+
+    @Override
+    boolean sameAggregates(Terms previous, Terms next) {
+        if (previous.terms.size() != next.terms.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.terms.size(); i++) {
+            if (!Arrays.equals(previous.terms.get(i), next.terms.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void add(Terms terms) {
+        for (String[] term : terms.terms) {
+            forgetTop(term[2]);
+            String key = term[0] + '\0' + term[2];
+            Suggestion suggestion = suggestions.get(key);
+            if (suggestion == null) {
+                suggestion = new Suggestion(term[0], term[1], term[2]);
+                suggestions.put(key, suggestion);
+                for (String suffix : wordSuffixes(term[2])) {
+                    prefixes.put(suffix + '\0' + key, suggestion);
+                }
+            }
+            suggestion.count++;
+        }
+    }
+
+    @Override
+    void subtract(Terms terms) {
+        for (String[] term : terms.terms) {
+            forgetTop(term[2]);
+            String key = term[0] + '\0' + term[2];
+            Suggestion suggestion = suggestions.get(key);
+            if (suggestion != null && --suggestion.count == 0) {
+                suggestions.remove(key);
+                for (String suffix : wordSuffixes(term[2])) {
+                    prefixes.remove(suffix + '\0' + key);
+                }
+            }
+        }
+    }
+
+    @Override
+    void clear() {
+        suggestions.clear();
+        prefixes.clear();
+        topByPrefix.clear();
+        longestCachedPrefix = 0;
+    }
+
+    /** Drops the kept top suggestions of every prefix the text matches, as its count is about to change. */
+    private void forgetTop(String normalized) {
+        if (topByPrefix.isEmpty()) {
+            return;
+        }
+        for (String suffix : wordSuffixes(normalized)) {
+            for (int length = 1; length <= Math.min(suffix.length(), longestCachedPrefix); length++) {
+                topByPrefix.remove(suffix.substring(0, length));
+            }
+        }
+    }
+
+    private static void putTerm(Map<String, String[]> terms, String type, String text) {
+        String normalized = normalize(text);
+        if (!normalized.isEmpty()) {
+            terms.putIfAbsent(type + '\0' + normalized, new String[]{type, text.strip(), normalized});
+        }
+    }
+
+    /** Lower case with runs of whitespace collapsed to one space. */
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** The text from the start of each of its words: {@code "a b c"}, {@code "b c"} and {@code "c"}. */
+    private static List<String> wordSuffixes(String normalized) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            suffixes.add(normalized.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    private static SuggestionResponse toResponse(Suggestion suggestion) {
+        SuggestionResponse response = new SuggestionResponse();
+        response.setText(suggestion.text);
+        response.setType(suggestion.type);
+        response.setCount(suggestion.count);
+        return response;
+    }
+
+    /** The texts of one product, each as its type, text and normalized text. */
+    static final class Terms {
+        private final List<String[]> terms;
+        private final long version;
+
+        private Terms(List<String[]> terms, long version) {
+            this.terms = terms;
+            this.version = version;
+        }
+    }
+
+    private static final class Suggestion {
+        private final String type;
+        private final String text;
+        private final String normalized;
+        private long count;
+
+        private Suggestion(String type, String text, String normalized) {
+            this.type = type;
+            this.text = text;
+            this.normalized = normalized;
+        }
+    }
+}
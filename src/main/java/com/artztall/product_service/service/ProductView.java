@@ -0,0 +1,163 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Base of the in-memory views derived from the products collection. A view is loaded once from a projection of
+ * every product and then maintained incrementally: this node's writes are applied as they return the updated
+ * document, and writes made elsewhere arrive through {@link ProductChangeStreamListener}. Each product's last
+ * applied version is kept, so a change that arrives late, after a newer one, is ignored.
+ * <p>
+ * Subclasses keep the part of a product they depend on as {@code F} and fold it in and out of their aggregates;
+ * all of that runs under the view's own lock.
+ */
+@Slf4j
+abstract class ProductView<F> {
+
+    private final ProductRepository productRepository;
+    private final List<String> fields;
+    /** A lock rather than a monitor: it is held while the load streams from Mongo, which would pin a virtual thread. */
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Map<String, F> products = new HashMap<>();
+    /** Products removed while the initial load runs, which the load may still have read. */
+    private Set<String> removedDuringLoad;
+    private volatile boolean loaded;
+
+    ProductView(ProductRepository productRepository, List<String> fields) {
+        this.productRepository = productRepository;
+        this.fields = fields;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensureLoaded();
+        } catch (RuntimeException e) {
+            // Retried by the first read.
+            log.warn("Could not load {}: {}", getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the current state of a product, replacing whatever the view held for it.
+     */
+    public synchronized void apply(Product product) {
+        F facts = facts(product);
+        F previous = products.get(product.getId());
+        if (previous != null) {
+            if (version(previous) > version(facts)) {
+                return;
+            }
+            if (sameAggregates(previous, facts)) {
+                // Most writes, such as stock changes, leave the view's part of the product as it was.
+                products.put(product.getId(), facts);
+                return;
+            }
+            subtract(previous);
+        }
+        products.put(product.getId(), facts);
+        add(facts);
+    }
+
+    public synchronized void remove(String productId) {
+        if (removedDuringLoad != null) {
+            removedDuringLoad.add(productId);
+        }
+        F previous = products.remove(productId);
+        if (previous != null) {
+            subtract(previous);
+        }
+    }
+
+    /**
+     * Drops the view, for when changes may have been missed; the next read loads it again.
+     */
+    public synchronized void invalidate() {
+        products.clear();
+        clear();
+        loaded = false;
+    }
+
+    /**
+     * Loads the view unless it already is. Once loaded this is a single volatile read; until then concurrent
+     * callers wait for a single load. Writers are not held up: they only contend for the view's own lock, which
+     * the load takes per product, and a product already applied by a concurrent write keeps its newer version.
+     */
+    void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                removedDuringLoad = new HashSet<>();
+                loadStarted();
+            }
+            try (Stream<Product> stream = productRepository.streamFields(fields)) {
+                stream.forEach(product -> {
+                    synchronized (this) {
+                        if (!removedDuringLoad.contains(product.getId())) {
+                            apply(product);
+                        }
+                    }
+                });
+                synchronized (this) {
+                    loadFinished();
+                    loaded = true;
+                }
+                log.info("Loaded {} from {} products", getClass().getSimpleName(), products.size());
+            } finally {
+                synchronized (this) {
+                    removedDuringLoad = null;
+                    // Also after a failed load, so the aggregates go back to incremental updates.
+                    loadFinished();
+                }
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /** The part of a product the view depends on. */
+    abstract F facts(Product product);
+
+    abstract long version(F facts);
+
+    /** Whether replacing {@code previous} by {@code next} would leave the aggregates unchanged. */
+    boolean sameAggregates(F previous, F next) {
+        return false;
+    }
+
+    abstract void add(F facts);
+
+    abstract void subtract(F facts);
+
+    /** Empties the aggregates; every product has been forgotten. */
+    abstract void clear();
+
+    /**
+     * Called, under the view's lock, before the initial load starts adding products, so a subclass can build its
+     * aggregates in bulk. Writes can still arrive until {@link #loadFinished()}.
+     */
+    void loadStarted() {
+    }
+
+    /** Called under the view's lock once the load is over, successful or not. May be called more than once. */
+    void loadFinished() {
+    }
+}
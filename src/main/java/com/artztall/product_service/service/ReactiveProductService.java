@@ -0,0 +1,125 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ReactiveWebConfig;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.exception.ProductNotFoundException;
+import com.artztall.product_service.exception.ProductReservationConflictException;
+import com.artztall.product_service.exception.ReservationLeaseNotFoundException;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ReactiveProductRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Non-blocking implementation of the read and reserve/release operations of {@link ProductService}, used by
+ * the reactive profile. Semantics and errors match {@link ProductServiceImpl}.
+ */
+@Service
+@Profile(ReactiveWebConfig.REACTIVE_PROFILE)
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductMapper productMapper;
+    private final ReservationProperties reservationProperties;
+    private final ProductStatsView statsView;
+    private final ProductSuggestIndex suggestIndex;
+
+    public ReactiveProductService(ReactiveProductRepository productRepository, ProductCache productCache,
+                                  ProductMapper productMapper, ReservationProperties reservationProperties,
+                                  ProductStatsView statsView, ProductSuggestIndex suggestIndex) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productMapper = productMapper;
+        this.reservationProperties = reservationProperties;
+        this.statsView = statsView;
+        this.suggestIndex = suggestIndex;
+    }
+
+    public Mono<ProductResponse> getProductById(String id) {
+        // Serves cache hits but does not populate on a miss: a load here cannot hold the entry lock that keeps
+        // concurrent invalidations from being overtaken (see ProductCache).
+        ProductResponse cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return productRepository.findById(id)
+                .map(productMapper::mapToProductResponse)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(id)));
+    }
+
+    public Mono<Page<ProductResponse>> getAllProducts(Pageable pageable) {
+        return page(productRepository.findAllBy(pageable), productRepository.count(), pageable);
+    }
+
+    public Mono<Page<ProductResponse>> getProductsByArtist(String artistId, Pageable pageable) {
+        return page(productRepository.findByArtistId(artistId, pageable),
+                productRepository.countByArtistId(artistId), pageable);
+    }
+
+    public Mono<Page<ProductResponse>> getProductsByCategory(String category, Pageable pageable) {
+        return page(productRepository.findByCategory(category, pageable),
+                productRepository.countByCategory(category), pageable);
+    }
+
+    public Mono<Page<ProductResponse>> getProductsByPriceRange(Double minPrice, Double maxPrice, Pageable pageable) {
+        return page(productRepository.findByPriceRange(minPrice, maxPrice, pageable),
+                productRepository.countByPriceRange(minPrice, maxPrice), pageable);
+    }
+
+    public Mono<ReservationLeaseResponse> reserveProduct(String productId, int quantity) {
+        if (quantity < 1) {
+            return Mono.error(new IllegalArgumentException("Quantity must be at least 1"));
+        }
+        String reservationId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationProperties.getLeaseTtl());
+        return productRepository.reserveStock(productId, reservationId, quantity, expiresAt)
+                .map(product -> {
+                    afterWrite(product);
+                    return productMapper.mapToLeaseResponse(product, reservationId);
+                })
+                .switchIfEmpty(Mono.defer(() -> productRepository.existsById(productId)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new ProductReservationConflictException(productId)
+                                : new ProductNotFoundException(productId)))));
+    }
+
+    public Mono<ProductResponse> releaseProduct(String productId, String reservationId) {
+        if (reservationId == null || reservationId.isBlank()) {
+            return Mono.error(new IllegalArgumentException("reservationId is required"));
+        }
+        return productRepository.releaseStock(productId, reservationId)
+                .map(this::evictAndMap)
+                .switchIfEmpty(Mono.error(() -> new ReservationLeaseNotFoundException(productId, reservationId)));
+    }
+
+    /**
+     * Runs the page query and the count concurrently rather than one after the other.
+     */
+    private Mono<Page<ProductResponse>> page(Flux<Product> content, Mono<Long> total, Pageable pageable) {
+        return Mono.zip(content.map(productMapper::mapToProductResponse).collectList(), total)
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    private ProductResponse evictAndMap(Product product) {
+        afterWrite(product);
+        return productMapper.mapToProductResponse(product);
+    }
+
+    /** Same bookkeeping as {@link ProductServiceImpl} after a write; the views only take their own short lock. */
+    private void afterWrite(Product product) {
+        productCache.invalidate(product.getId());
+        statsView.apply(product);
+        suggestIndex.apply(product);
+    }
+}
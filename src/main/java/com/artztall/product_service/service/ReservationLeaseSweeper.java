@@ -0,0 +1,53 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically returns the stock of reservation leases, and of batch reservations, whose holder never confirmed
+ * or released them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product.reservation.sweeper-enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationLeaseSweeper {
+
+    private final ProductRepository productRepository;
+    private final ReservationProperties reservationProperties;
+    private final ProductCache productCache;
+    private final ProductStatsView statsView;
+    private final ProductSuggestIndex suggestIndex;
+
+    @Scheduled(fixedDelayString = "${product.reservation.sweeper-interval:PT30S}")
+    public void releaseExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = reservationProperties.getSweeperBatchSize();
+        long released = 0;
+        List<String> productIds;
+        do {
+            productIds = productRepository.findIdsWithExpiredLeases(now, batchSize);
+            released += productRepository.releaseExpiredLeases(productIds, now);
+            productCache.invalidateAll(productIds);
+            if (!productIds.isEmpty()) {
+                // The bulk release does not return the documents, and the views follow stock and availability.
+                productRepository.findAllById(productIds).forEach(product -> {
+                    statsView.apply(product);
+                    suggestIndex.apply(product);
+                });
+            }
+        } while (productIds.size() == batchSize);
+
+        if (released > 0) {
+            log.info("Released expired reservation leases on {} products", released);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.SlowQueryResponse;
+import com.artztall.product_service.repository.SlowQueryRecorder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the slow commands held by {@link SlowQueryRecorder} and explains them on request. Explaining is kept out
+ * of the recorder itself, which the Mongo client depends on and so cannot depend on the template in turn.
+ */
+@Service
+public class SlowQueryService {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+    private final MongoTemplate mongoTemplate;
+
+    public SlowQueryService(SlowQueryRecorder slowQueryRecorder, MongoTemplate mongoTemplate) {
+        this.slowQueryRecorder = slowQueryRecorder;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<SlowQueryResponse> getSlowQueries() {
+        return slowQueryRecorder.getSlowQueries();
+    }
+
+    /**
+     * Re-runs a recorded command as {@code explain} in {@code executionStats} mode. The query is executed to
+     * collect the figures, but writes are only planned, never applied.
+     */
+    public Optional<SlowQueryResponse> explain(long id) {
+        return slowQueryRecorder.explain(id, (database, command) ->
+                mongoTemplate.getMongoDatabaseFactory().getMongoDatabase(database).runCommand(command));
+    }
+}
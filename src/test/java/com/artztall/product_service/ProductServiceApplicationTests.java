@@ -3,7 +3,11 @@ package com.artztall.product_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"product.reservation.sweeper-enabled=false",
+		"product.cache.change-stream-enabled=false",
+		"product.indexes.auto-create=false"
+})
 class ProductServiceApplicationTests {
 
 	@Test
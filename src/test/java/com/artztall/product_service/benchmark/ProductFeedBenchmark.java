@@ -0,0 +1,101 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepositoryCustomImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares offset paging (skip + count, as {@code getAllProducts} does) with keyset paging
+ * ({@code getProductFeed}) at increasing page depths.
+ * <p>
+ * Needs a disposable MongoDB; the benchmark database is dropped afterwards. Run with:
+ * <pre>
+ * mvn test -Dtest=ProductFeedBenchmark -Dbenchmark.mongodb.uri=mongodb://localhost:27017
+ * </pre>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.mongodb.uri", matches = ".+")
+class ProductFeedBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int[] PAGES = {1, 100, 1_000, 10_000};
+    private static final int REPETITIONS = 20;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ProductRepositoryCustomImpl repository;
+    private final List<String> pageBoundaries = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        client = MongoClients.create(System.getProperty("benchmark.mongodb.uri"));
+        mongoTemplate = new MongoTemplate(client, "product_service_benchmark");
+        repository = new ProductRepositoryCustomImpl(mongoTemplate);
+        mongoTemplate.dropCollection(Product.class);
+
+        int total = (PAGES[PAGES.length - 1] + 1) * PAGE_SIZE;
+        for (int seeded = 0; seeded < total; seeded += 10_000) {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < Math.min(10_000, total - seeded); i++) {
+                Product product = new Product();
+                product.setName("Product " + (seeded + i));
+                product.setDescription("Benchmark product used to measure paging cost at depth.");
+                product.setPrice(seeded + i);
+                product.setStockQuantity(1);
+                product.setAvailable(true);
+                products.add(product);
+            }
+            mongoTemplate.insert(products, Product.class);
+        }
+
+        // Collect the cursor position at each measured page once, outside the timed section.
+        String afterId = null;
+        for (int page = 0; page <= PAGES[PAGES.length - 1]; page++) {
+            pageBoundaries.add(afterId);
+            List<Product> products = repository.findAfter(afterId, PAGE_SIZE);
+            afterId = products.get(products.size() - 1).getId();
+        }
+    }
+
+    @AfterAll
+    void dropAndClose() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void compareOffsetAndKeysetPaging() {
+        for (int page : PAGES) {
+            double offsetMillis = time(() -> {
+                mongoTemplate.find(new Query().with(PageRequest.of(page, PAGE_SIZE)), Product.class);
+                mongoTemplate.count(new Query(), Product.class);
+            });
+            String afterId = pageBoundaries.get(page);
+            double keysetMillis = time(() -> repository.findAfter(afterId, PAGE_SIZE + 1));
+            System.out.printf("page=%,d offset=%.2f ms keyset=%.2f ms%n", page, offsetMillis, keysetMillis);
+        }
+    }
+
+    private static double time(Runnable query) {
+        for (int i = 0; i < 3; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / REPETITIONS;
+    }
+}
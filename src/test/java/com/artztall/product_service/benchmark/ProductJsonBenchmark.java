@@ -0,0 +1,87 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.config.JacksonConfig;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.service.ProductMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of writing product responses to JSON with the application's {@link ObjectMapper} setup: one product, a
+ * listing page, and a listing page trimmed to {@code fields=summary}. Run with:
+ * <pre>
+ * mvn -Pjmh test -Djmh.args="ProductJsonBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectWriter summaryWriter;
+    private ProductResponse product;
+    private Page<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().productFieldsFilter().customize(builder);
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer();
+        // The same filter ProductFieldsResponseAdvice installs for fields=summary.
+        summaryWriter = objectMapper.writer(new SimpleFilterProvider().addFilter(ProductFields.FILTER_ID,
+                SimpleBeanPropertyFilter.filterOutAllExcept(ProductFields.SUMMARY.getNames())));
+
+        ProductMapper productMapper = new ProductMapper();
+        product = productMapper.mapToProductResponse(ProductSamples.product(1));
+        List<ProductResponse> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> productMapper.mapToProductResponse(ProductSamples.product(i)))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return writer.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws JsonProcessingException {
+        return summaryWriter.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,58 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.dto.ProductRequest;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.service.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the {@link ProductMapper} conversions every CRUD and listing request goes through. Look at
+ * {@code gc.alloc.rate.norm} (bytes per call) to catch allocation regressions. Run with:
+ * <pre>
+ * mvn -Pjmh test -Djmh.args="ProductMappingBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final Product product = ProductSamples.product(1);
+    private final ProductRequest request = ProductSamples.request();
+
+    @Benchmark
+    public ProductResponse mapToProductResponse() {
+        return productMapper.mapToProductResponse(product);
+    }
+
+    @Benchmark
+    public Product mapToProduct() {
+        return productMapper.mapToProduct(request);
+    }
+
+    @Benchmark
+    public Product mapToNewProduct() {
+        return productMapper.mapToNewProduct(request, "artist-1");
+    }
+
+    @Benchmark
+    public Map<String, Object> mapToUpdateFields() {
+        return productMapper.mapToUpdateFields(request);
+    }
+}
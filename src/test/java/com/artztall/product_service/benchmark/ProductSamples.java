@@ -0,0 +1,64 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.dto.ProductDimensionsDTO;
+import com.artztall.product_service.dto.ProductRequest;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductDimensions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fully populated products and requests shared by the JMH benchmarks, so each measures the same payload.
+ */
+final class ProductSamples {
+
+    private static final String[] CATEGORIES = {"painting", "sculpture", "photography", "print"};
+
+    private ProductSamples() {
+    }
+
+    static Product product(int i) {
+        Product product = new Product();
+        product.setId(String.format("%024x", i));
+        product.setName("Product " + i);
+        product.setDescription("Oil on canvas, signed and dated by the artist on the reverse. Edition " + i + ".");
+        product.setPrice(100 + i % 900);
+        product.setArtistId("artist-" + i % 50);
+        product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+        product.setTags(List.of("abstract", "modern", "tag-" + i % 20));
+        product.setImageUrl("https://images.example.com/products/" + i + ".jpg");
+        product.setStockQuantity(1 + i % 5);
+        product.setAvailable(true);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+        product.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 0, 0).plusMinutes(i));
+        product.setMedium("Oil");
+        product.setStyle("Expressionism");
+        ProductDimensions dimensions = new ProductDimensions();
+        dimensions.setLength(80);
+        dimensions.setWidth(60);
+        dimensions.setUnit("cm");
+        product.setDimensions(dimensions);
+        product.setVersion((long) i % 7);
+        return product;
+    }
+
+    static ProductRequest request() {
+        ProductRequest request = new ProductRequest();
+        request.setName("Product");
+        request.setDescription("Oil on canvas, signed and dated by the artist on the reverse.");
+        request.setPrice(450);
+        request.setCategory("painting");
+        request.setTags(List.of("abstract", "modern"));
+        request.setImageUrl("https://images.example.com/products/new.jpg");
+        request.setStockQuantity(3);
+        request.setMedium("Oil");
+        request.setStyle("Expressionism");
+        ProductDimensionsDTO dimensions = new ProductDimensionsDTO();
+        dimensions.setLength(80.0);
+        dimensions.setWidth(60.0);
+        dimensions.setUnit("cm");
+        request.setDimensions(dimensions);
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductIndexManager;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Compares the former unanchored {@code $regex} search with the text-index search at growing catalog sizes.
+ * <p>
+ * Needs a disposable MongoDB; the benchmark database is dropped afterwards. Run with:
+ * <pre>
+ * mvn test -Dtest=ProductSearchBenchmark -Dbenchmark.mongodb.uri=mongodb://localhost:27017 \
+ *     -Dbenchmark.sizes=10000,100000,1000000
+ * </pre>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.mongodb.uri", matches = ".+")
+class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {"abstract", "portrait", "landscape", "ocean", "city", "sunset", "forest",
+            "river", "mountain", "flower", "modern", "classic", "oil", "acrylic", "watercolor", "charcoal", "blue",
+            "golden", "silent", "winter", "summer", "night", "morning", "garden", "harbor", "storm", "light"};
+    private static final int BATCH_SIZE = 10_000;
+    private static final int QUERIES = 50;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    void connect() {
+        client = MongoClients.create(System.getProperty("benchmark.mongodb.uri"));
+        mongoTemplate = new MongoTemplate(client, "product_service_benchmark");
+    }
+
+    @AfterAll
+    void dropAndClose() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void compareRegexAndTextSearch() {
+        Random random = new Random(42);
+        int seeded = 0;
+        mongoTemplate.dropCollection(Product.class);
+        new ProductIndexManager(mongoTemplate, false).ensureIndexes();
+
+        for (String size : System.getProperty("benchmark.sizes", "10000,100000,1000000").split(",")) {
+            int target = Integer.parseInt(size.trim());
+            while (seeded < target) {
+                int batch = Math.min(BATCH_SIZE, target - seeded);
+                List<Product> products = new ArrayList<>(batch);
+                for (int i = 0; i < batch; i++) {
+                    products.add(randomProduct(random));
+                }
+                mongoTemplate.insert(products, Product.class);
+                seeded += batch;
+            }
+
+            double regexMillis = time(term -> mongoTemplate.find(regexQuery(term), Product.class), random);
+            double textMillis = time(term -> mongoTemplate.find(textQuery(term), Product.class), random);
+            System.out.printf("products=%,d regex=%.2f ms/query text=%.2f ms/query%n", target, regexMillis, textMillis);
+        }
+    }
+
+    /** The query {@code searchProducts} used to run, limited to one page like the new endpoint. */
+    private static Query regexQuery(String term) {
+        return new Query(new Criteria().orOperator(
+                Criteria.where("name").regex(term, "i"),
+                Criteria.where("description").regex(term, "i"),
+                Criteria.where("tags").regex(term, "i")))
+                .with(PageRequest.of(0, 10));
+    }
+
+    private static Query textQuery(String term) {
+        return TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(term))
+                .sortByScore()
+                .with(PageRequest.of(0, 10, Sort.unsorted()));
+    }
+
+    private static double time(Consumer<String> search, Random random) {
+        for (int i = 0; i < 5; i++) {
+            search.accept(WORDS[random.nextInt(WORDS.length)]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            search.accept(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / QUERIES;
+    }
+
+    private static Product randomProduct(Random random) {
+        Product product = new Product();
+        product.setName(words(random, 3));
+        product.setDescription(words(random, 30));
+        product.setTags(Arrays.asList(words(random, 4).split(" ")));
+        product.setPrice(10 + random.nextInt(10_000));
+        product.setCategory("category-" + random.nextInt(20));
+        product.setArtistId("artist-" + random.nextInt(5_000));
+        product.setStockQuantity(1);
+        product.setAvailable(true);
+        return product;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.config.ProductBrowseProperties;
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.dto.ProductBatchResponse;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductPatchRequest;
+import com.artztall.product_service.dto.ProductRequest;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.SuggestionResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import com.artztall.product_service.service.ProductCache;
+import com.artztall.product_service.service.ProductMapper;
+import com.artztall.product_service.service.ProductServiceImpl;
+import com.artztall.product_service.service.ProductStatsView;
+import com.artztall.product_service.service.ProductSuggestIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Service-layer cost of the CRUD and listing paths, without the database: {@link ProductServiceImpl} runs against
+ * an in-memory repository stand-in, so what is measured is caching, mapping and the service's own logic. The
+ * {@code Uncached} variants go through a service whose cache holds nothing. Run with:
+ * <pre>
+ * mvn -Pjmh test -Djmh.args="ProductServiceBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private final Map<String, Product> products = new LinkedHashMap<>();
+    private List<Product> allProducts;
+    private Map<String, List<Product>> productsByCategory;
+    private ProductServiceImpl productService;
+    private ProductServiceImpl uncachedProductService;
+    private String productId;
+    private List<String> batchIds;
+    private ProductRequest request;
+    private ProductPatchRequest patch;
+
+    @Setup
+    public void setUp() {
+        IntStream.range(0, PRODUCTS).mapToObj(ProductSamples::product)
+                .forEach(product -> products.put(product.getId(), product));
+        // Listings are precomputed so the stand-in adds no filtering cost of its own.
+        allProducts = List.copyOf(products.values());
+        productsByCategory = allProducts.stream().collect(Collectors.groupingBy(Product::getCategory));
+        productService = productService(new ProductCacheProperties());
+        ProductCacheProperties noCache = new ProductCacheProperties();
+        noCache.setMaximumSize(0);
+        uncachedProductService = productService(noCache);
+
+        productId = ProductSamples.product(PRODUCTS / 2).getId();
+        batchIds = IntStream.range(0, 20).mapToObj(i -> ProductSamples.product(i * 7).getId()).toList();
+        request = ProductSamples.request();
+        patch = new ProductPatchRequest();
+        patch.setPrice(520.0);
+        patch.setStockQuantity(2);
+    }
+
+    @Benchmark
+    public ProductResponse getProductById() {
+        return productService.getProductById(productId);
+    }
+
+    @Benchmark
+    public ProductResponse getProductByIdUncached() {
+        return uncachedProductService.getProductById(productId);
+    }
+
+    @Benchmark
+    public ProductBatchResponse getProductsByIdsUncached() {
+        return uncachedProductService.getProductsByIds(batchIds);
+    }
+
+    @Benchmark
+    public Page<ProductResponse> getAllProducts() {
+        return productService.getAllProducts(FIRST_PAGE, ProductFields.ALL);
+    }
+
+    @Benchmark
+    public Page<ProductResponse> getProductsByCategory() {
+        return productService.getProductsByCategory("painting", FIRST_PAGE, ProductFields.ALL);
+    }
+
+    /** A one-letter prefix, which matches every sample product's name: the widest range the index scans. */
+    @Benchmark
+    public List<SuggestionResponse> suggestShortPrefix() {
+        return productService.suggest("p", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionResponse> suggest() {
+        return productService.suggest("mod", 10);
+    }
+
+    @Benchmark
+    public ProductResponse createProduct() {
+        return productService.createProduct(request, "artist-1");
+    }
+
+    @Benchmark
+    public ProductResponse updateProduct() {
+        return productService.updateProduct(productId, request, null);
+    }
+
+    @Benchmark
+    public ProductResponse patchProduct() {
+        return productService.patchProduct(productId, patch, null);
+    }
+
+    private ProductServiceImpl productService(ProductCacheProperties cacheProperties) {
+        ProductRepository repository = inMemoryRepository();
+        return new ProductServiceImpl(repository, new ReservationProperties(), new ProductCache(cacheProperties),
+                new ProductBrowseProperties(), new ProductMapper(), new ProductStatsView(repository),
+                new ProductSuggestIndex(repository));
+    }
+
+    /**
+     * Answers the repository methods the benchmarked paths call from the sample products. Writes are not applied,
+     * so every invocation sees the same data.
+     */
+    @SuppressWarnings("unchecked")
+    private ProductRepository inMemoryRepository() {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById", "updateFields" -> Optional.ofNullable(products.get((String) args[0]));
+                    case "existsById" -> products.containsKey((String) args[0]);
+                    case "findAllById" -> StreamSupport.stream(((Iterable<String>) args[0]).spliterator(), false)
+                            .map(products::get)
+                            .filter(product -> product != null)
+                            .toList();
+                    case "findAll" -> page(allProducts, (Pageable) args[0]);
+                    case "streamFields" -> allProducts.stream();
+                    case "findByCategory" -> page(productsByCategory.getOrDefault((String) args[0], List.of()),
+                            (Pageable) args[1]);
+                    case "save" -> {
+                        Product product = (Product) args[0];
+                        product.setId("new");
+                        yield product;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Page<Product> page(List<Product> matching, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+}
@@ -0,0 +1,192 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.ProductServiceApplication;
+import com.artztall.product_service.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the service once on the MVC stack and once with the reactive profile, drives the same request mix at
+ * each with a fixed number of requests in flight, and prints throughput and latency percentiles.
+ * <p>
+ * The mix is 45% get-by-id, 45% category listing and 10% reserve followed by release. Run it against a remote
+ * or throttled MongoDB to see how each stack behaves when the database is slow. Needs a disposable MongoDB; the
+ * benchmark database is dropped afterwards. Run with:
+ * <pre>
+ * mvn test -Dtest=ProductStackLoadBenchmark -Dbenchmark.mongodb.uri=mongodb://localhost:27017 [-Dbenchmark.concurrency=512]
+ * </pre>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.mongodb.uri", matches = ".+")
+class ProductStackLoadBenchmark {
+
+    private static final String DATABASE = "product_service_benchmark";
+    private static final int PRODUCTS = 10_000;
+    private static final String[] CATEGORIES = {"Painting", "Sculpture", "Photography", "Drawing", "Print"};
+    private static final int WARMUP_REQUESTS = 5_000;
+    private static final int REQUESTS = 50_000;
+    private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("benchmark.concurrency", "64,256,1024")
+            .split(",")).mapToInt(Integer::parseInt).toArray();
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private final List<String> productIds = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    void seed() {
+        client = MongoClients.create(System.getProperty("benchmark.mongodb.uri"));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Benchmark product used to compare the blocking and reactive stacks.");
+            product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            product.setPrice(i);
+            // Enough stock that reserve never conflicts; every reservation is released again by its id.
+            product.setStockQuantity(1_000_000);
+            product.setAvailable(true);
+            products.add(product);
+        }
+        mongoTemplate.insert(products, Product.class).forEach(product -> productIds.add(product.getId()));
+    }
+
+    @AfterAll
+    void dropAndClose() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void compareMvcAndReactiveStacks() throws Exception {
+        for (String profile : new String[]{"default", "reactive"}) {
+            try (ConfigurableApplicationContext context = start(profile)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + "/api/products";
+                for (int concurrency : CONCURRENCY) {
+                    run(baseUrl, concurrency, WARMUP_REQUESTS);
+                    long start = System.nanoTime();
+                    long[] latencies = run(baseUrl, concurrency, REQUESTS);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    Arrays.sort(latencies);
+                    System.out.printf("stack=%s concurrency=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                            profile, concurrency, REQUESTS / seconds, percentile(latencies, 0.50),
+                            percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+                }
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(String profile) {
+        return new SpringApplicationBuilder(ProductServiceApplication.class)
+                .profiles(profile)
+                .properties(
+                        "spring.data.mongodb.uri=" + System.getProperty("benchmark.mongodb.uri"),
+                        "spring.data.mongodb.database=" + DATABASE,
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "product.reservation.sweeper-enabled=false",
+                        "product.cache.change-stream-enabled=false",
+                        // Measure the stacks, not the cache.
+                        "product.cache.maximum-size=0")
+                .run();
+    }
+
+    /**
+     * Sends {@code requests} requests keeping {@code concurrency} in flight and returns each latency in nanos.
+     */
+    private long[] run(String baseUrl, int concurrency, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<?>> pending = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long start = System.nanoTime();
+            pending.add(send(baseUrl).whenComplete((status, error) -> {
+                latencies[index] = System.nanoTime() - start;
+                if (error != null || status != 200) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        if (failures.get() > 0) {
+            System.out.printf("  %d of %d requests failed%n", failures.get(), requests);
+        }
+        return latencies;
+    }
+
+    private CompletableFuture<Integer> send(String baseUrl) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = productIds.get(random.nextInt(productIds.size()));
+        int operation = random.nextInt(100);
+        if (operation < 45) {
+            return get(baseUrl + "/" + id);
+        }
+        if (operation < 90) {
+            return get(baseUrl + "/category/" + CATEGORIES[random.nextInt(CATEGORIES.length)]
+                    + "?page=" + random.nextInt(50) + "&size=20&sortBy=price&direction=ASC");
+        }
+        // Release names the reservation the reserve returned, so every hold is given back.
+        return reserve(baseUrl + "/" + id + "/reserve")
+                .thenCompose(response -> response.statusCode() == 200
+                        ? put(baseUrl + "/" + id + "/release?reservationId=" + leaseId(response.body()))
+                        : CompletableFuture.completedFuture(response.statusCode()));
+    }
+
+    private CompletableFuture<HttpResponse<String>> reserve(String url) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(url)).PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String leaseId(String reservation) {
+        try {
+            return objectMapper.readTree(reservation).path("leaseId").asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable reservation: " + reservation, e);
+        }
+    }
+
+    private CompletableFuture<Integer> get(String url) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private CompletableFuture<Integer> put(String url) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(url)).PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+}
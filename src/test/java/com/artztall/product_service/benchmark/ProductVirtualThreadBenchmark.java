@@ -0,0 +1,122 @@
+package com.artztall.product_service.benchmark;
+
+import com.artztall.product_service.config.ProductBrowseProperties;
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductReservation;
+import com.artztall.product_service.repository.ProductRepository;
+import com.artztall.product_service.service.ProductCache;
+import com.artztall.product_service.service.ProductMapper;
+import com.artztall.product_service.service.ProductServiceImpl;
+import com.artztall.product_service.service.ProductStatsView;
+import com.artztall.product_service.service.ProductSuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Compares request throughput of {@code getProductById} and {@code reserveProduct} on a 200-thread pool, as
+ * Tomcat runs them by default, with a virtual thread per request, as {@code spring.threads.virtual.enabled}
+ * does. The repository is an in-memory stub that sleeps to simulate the database round trip, and the cache is
+ * disabled so every read goes through a {@link ProductCache} load.
+ * <p>
+ * Needs Java 21. Add {@code -Djdk.tracePinnedThreads=short} to print any place a virtual thread blocks while
+ * pinned to its carrier. Run with:
+ * <pre>
+ * mvn test -Dtest=ProductVirtualThreadBenchmark -Dbenchmark.virtual-threads=true [-Dbenchmark.latency-millis=20]
+ * </pre>
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "benchmark.virtual-threads", matches = "true")
+class ProductVirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS = 20_000;
+    private static final long LATENCY_MILLIS = Long.getLong("benchmark.latency-millis", 20);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        ProductServiceImpl productService = productService();
+        for (String operation : new String[]{"getProductById", "reserveProduct"}) {
+            Consumer<Integer> request = "getProductById".equals(operation)
+                    ? i -> productService.getProductById(String.valueOf(i))
+                    : i -> productService.reserveProduct(String.valueOf(i), 1);
+            double platform = throughput(Executors.newFixedThreadPool(PLATFORM_THREADS), request);
+            double virtual = throughput(newVirtualThreadPerTaskExecutor(), request);
+            System.out.printf("%s latency=%d ms platform(%d)=%.0f req/s virtual=%.0f req/s (%.1fx)%n", operation,
+                    LATENCY_MILLIS, PLATFORM_THREADS, platform, virtual, virtual / platform);
+        }
+    }
+
+    private static double throughput(ExecutorService executor, Consumer<Integer> request) throws Exception {
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> requests = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int id = i;
+                requests.add(executor.submit(() -> request.accept(id)));
+            }
+            for (Future<?> pending : requests) {
+                pending.get();
+            }
+            return REQUESTS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ProductServiceImpl productService() {
+        ProductCacheProperties cacheProperties = new ProductCacheProperties();
+        cacheProperties.setMaximumSize(0);
+        ProductRepository repository = slowRepository();
+        return new ProductServiceImpl(repository, new ReservationProperties(), new ProductCache(cacheProperties),
+                new ProductBrowseProperties(), new ProductMapper(), new ProductStatsView(repository),
+                new ProductSuggestIndex(repository));
+    }
+
+    private static ProductRepository slowRepository() {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+                    Thread.sleep(LATENCY_MILLIS);
+                    return switch (method.getName()) {
+                        case "findById" -> Optional.of(product((String) args[0]));
+                        case "leaseStock" -> Optional.of(leased(product((String) args[0]), (String) args[1]));
+                        case "existsById" -> true;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+    private static Product product(String id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setStockQuantity(1);
+        product.setAvailable(true);
+        return product;
+    }
+
+    private static Product leased(Product product, String leaseId) {
+        ProductReservation lease = new ProductReservation();
+        lease.setReservationId(leaseId);
+        lease.setQuantity(1);
+        product.setReservations(List.of(lease));
+        return product;
+    }
+
+    // Looked up reflectively so the test sources still compile on the JDK 17 fallback (see the java17 profile).
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+}
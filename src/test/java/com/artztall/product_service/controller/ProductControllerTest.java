@@ -1,6 +1,8 @@
 package com.artztall.product_service.controller;
 import com.artztall.product_service.dto.*;
+import com.artztall.product_service.exception.GlobalExceptionHandler;
 import com.artztall.product_service.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -9,15 +11,37 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProductControllerTest {
 
@@ -74,14 +98,37 @@ class ProductControllerTest {
     @Test
     void testUpdateProduct() {
         String productId = "product-id";
-        when(productService.updateProduct(eq(productId), any(ProductRequest.class))).thenReturn(productResponse);
+        when(productService.updateProduct(eq(productId), any(ProductRequest.class), eq(null))).thenReturn(productResponse);
 
-        ResponseEntity<ProductResponse> response = productController.updateProduct(productId, productRequest);
+        ResponseEntity<ProductResponse> response = productController.updateProduct(productId, null, productRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Test Product", response.getBody().getName());
     }
 
+    @Test
+    void testPatchProductPassesIfMatchVersion() {
+        String productId = "product-id";
+        productResponse.setVersion(6L);
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setPrice(120.0);
+        when(productService.patchProduct(productId, patch, 5L)).thenReturn(productResponse);
+
+        ResponseEntity<ProductResponse> response = productController.patchProduct(productId, "\"5\"", patch);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"6\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testIfMatchParsing() {
+        assertNull(ProductController.expectedVersion(null));
+        assertNull(ProductController.expectedVersion("*"));
+        assertEquals(3L, ProductController.expectedVersion("\"3\""));
+        assertThrows(IllegalArgumentException.class, () -> ProductController.expectedVersion("W/\"3\""));
+        assertThrows(IllegalArgumentException.class, () -> ProductController.expectedVersion("\"abc\""));
+    }
+
     @Test
     void testDeleteProduct() {
         ResponseEntity<Void> response = productController.deleteProduct("product-id");
@@ -94,7 +141,7 @@ class ProductControllerTest {
         String productId = "product-id";
         when(productService.getProductById(productId)).thenReturn(productResponse);
 
-        ResponseEntity<ProductResponse> response = productController.getProduct(productId);
+        ResponseEntity<ProductResponse> response = productController.getProduct(productId, webRequest());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Test Product", response.getBody().getName());
@@ -103,9 +150,9 @@ class ProductControllerTest {
     @Test
     void testGetAllProducts() {
         Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
-        when(productService.getAllProducts(any(PageRequest.class))).thenReturn(page);
+        when(productService.getAllProducts(any(PageRequest.class), eq(ProductFields.ALL))).thenReturn(page);
 
-        ResponseEntity<Page<ProductResponse>> response = productController.getAllProducts(0, 10);
+        ResponseEntity<Page<ProductResponse>> response = productController.getAllProducts(0, 10, null, webRequest());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(1, response.getBody().getTotalElements());
@@ -114,33 +161,74 @@ class ProductControllerTest {
     @Test
     void testGetProductsByArtist() {
         String artistId = "artist-id";
-        when(productService.getProductsByArtist(artistId)).thenReturn(List.of(productResponse));
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
+        when(productService.getProductsByArtist(eq(artistId), any(PageRequest.class), any(ProductFields.class))).thenReturn(page);
 
-        ResponseEntity<List<ProductResponse>> response = productController.getProductsByArtist(artistId);
+        ResponseEntity<Page<ProductResponse>> response =
+                productController.getProductsByArtist(artistId, 0, 10, "createdAt", Sort.Direction.DESC, null, webRequest());
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getContent().size());
+        verify(productService).getProductsByArtist(artistId,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id")), ProductFields.ALL);
     }
 
     @Test
     void testGetProductsByCategory() {
         String category = "Art";
-        when(productService.getProductsByCategory(category)).thenReturn(List.of(productResponse));
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
+        when(productService.getProductsByCategory(eq(category), any(PageRequest.class), any(ProductFields.class))).thenReturn(page);
 
-        ResponseEntity<List<ProductResponse>> response = productController.getProductsByCategory(category);
+        ResponseEntity<Page<ProductResponse>> response =
+                productController.getProductsByCategory(category, 0, 10, "price", Sort.Direction.ASC, null, webRequest());
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getContent().size());
     }
 
     @Test
     void testGetProductsByPriceRange() {
-        when(productService.getProductsByPriceRange(50.0, 150.0)).thenReturn(List.of(productResponse));
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
+        when(productService.getProductsByPriceRange(eq(50.0), eq(150.0), any(PageRequest.class), any(ProductFields.class))).thenReturn(page);
 
-        ResponseEntity<List<ProductResponse>> response = productController.getProductsByPriceRange(50.0, 150.0);
+        ResponseEntity<Page<ProductResponse>> response =
+                productController.getProductsByPriceRange(50.0, 150.0, 0, 10, "price", Sort.Direction.ASC, null, webRequest());
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getContent().size());
+    }
+
+    @Test
+    void testListingPageSizeIsCapped() {
+        when(productService.getProductsByPriceRange(eq(0.0), eq(1e9), any(PageRequest.class), any(ProductFields.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        productController.getProductsByPriceRange(0.0, 1e9, 0, 100_000, "price", Sort.Direction.ASC, null, webRequest());
+
+        verify(productService).getProductsByPriceRange(eq(0.0), eq(1e9),
+                argThat(pageable -> pageable.getPageSize() == ProductController.MAX_PAGE_SIZE), eq(ProductFields.ALL));
+    }
+
+    @Test
+    void testListingPassesSummaryFields() {
+        when(productService.getProductsByCategory(eq("Art"), any(PageRequest.class), any(ProductFields.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        productController.getProductsByCategory("Art", 0, 10, "price", Sort.Direction.ASC, "summary", webRequest());
+
+        verify(productService).getProductsByCategory(eq("Art"), any(PageRequest.class), eq(ProductFields.SUMMARY));
+    }
+
+    @Test
+    void testListingRejectsUnknownField() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.getAllProducts(0, 10, "name,secret", webRequest()));
+    }
+
+    @Test
+    void testListingRejectsUnknownSortField() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.getProductsByCategory("Art", 0, 10, "description", Sort.Direction.ASC, null, webRequest()));
     }
 
     @Test
@@ -156,15 +244,112 @@ class ProductControllerTest {
         assertEquals(true, response.getBody().isAvailable());
     }
 
+    @Test
+    void testGetProductByIdSetsETag() {
+        productResponse.setVersion(3L);
+        productResponse.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(productService.getProductById("product-id")).thenReturn(productResponse);
+
+        ResponseEntity<ProductResponse> response = productController.getProduct("product-id", webRequest());
+
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getLastModified() > 0);
+    }
+
+    @Test
+    void testGetProductNotModifiedSkipsFullRead() {
+        when(productService.getProductVersion("product-id")).thenReturn(new ProductVersion(3L, null));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/products/product-id");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<ProductResponse> response = productController.getProduct("product-id",
+                new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+        verify(productService, never()).getProductById(any());
+    }
+
+    @Test
+    void testListingNotModifiedChecksVersionsOnly() {
+        productResponse.setVersion(2L);
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
+        when(productService.getProductsByCategory(eq("Art"), any(PageRequest.class), any(ProductFields.class)))
+                .thenReturn(page);
+        String eTag = productController.getProductsByCategory("Art", 0, 10, "price", Sort.Direction.ASC, null,
+                webRequest()).getHeaders().getETag();
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/products/category/Art");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        productController.getProductsByCategory("Art", 0, 10, "price", Sort.Direction.ASC, null,
+                new ServletWebRequest(servletRequest, servletResponse));
+
+        assertEquals(304, servletResponse.getStatus());
+        verify(productService).getProductsByCategory(eq("Art"), any(PageRequest.class), eq(ProductFields.VERSIONS));
+        verify(productService, times(1)).getProductsByCategory(eq("Art"), any(PageRequest.class), eq(ProductFields.ALL));
+    }
+
+    @Test
+    void testGetProductsByIds() {
+        ProductBatchRequest request = new ProductBatchRequest();
+        request.setIds(List.of("1", "2"));
+        ProductBatchResponse batch = new ProductBatchResponse();
+        batch.setProducts(List.of(productResponse));
+        batch.setMissingIds(List.of("2"));
+        when(productService.getProductsByIds(request.getIds())).thenReturn(batch);
+
+        ResponseEntity<ProductBatchResponse> response = productController.getProductsByIds(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of("2"), response.getBody().getMissingIds());
+    }
+
     @Test
     void testSearchProducts() {
         String query = "Test";
-        when(productService.searchProducts(query)).thenReturn(List.of(productResponse));
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
+        when(productService.searchProducts(eq(query), any(PageRequest.class))).thenReturn(page);
 
-        ResponseEntity<List<ProductResponse>> response = productController.searchProducts(query);
+        ResponseEntity<Page<ProductResponse>> response = productController.searchProducts(query, 0, 10);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getContent().size());
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
     }
-}
 
+    @Test
+    void testReleaseWithoutReservationIdIsBadRequest() throws Exception {
+        mockMvc().perform(put("/api/products/product-id/release"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("reservationId")));
+        verify(productService, never()).releaseProduct(any(), any());
+    }
+
+    @Test
+    void testUnknownSortDirectionIsBadRequest() throws Exception {
+        mockMvc().perform(get("/api/products/artist/artist-id").param("direction", "SIDEWAYS"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUnreadableBodyIsBadRequest() throws Exception {
+        mockMvc().perform(post("/api/products")
+                        .header("Artist-ID", "artist-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Request body is missing or not valid JSON"));
+    }
+
+    /** Binds requests the way the dispatcher does, so binding failures reach the exception handler. */
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.standaloneSetup(productController)
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+}
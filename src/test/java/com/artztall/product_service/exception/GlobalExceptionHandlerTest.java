@@ -0,0 +1,32 @@
+package com.artztall.product_service.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry);
+
+    @Test
+    void testNotFoundIsCountedPerResource() {
+        assertEquals(404, handler.handleProductNotFoundException(new ProductNotFoundException("1")).getStatusCode().value());
+        handler.handleProductNotFoundException(new ProductNotFoundException("2"));
+        handler.handleReservationLeaseNotFoundException(new ReservationLeaseNotFoundException("1", "lease-1"));
+
+        assertEquals(2, meterRegistry.get("product.not.found").tag("resource", "product").counter().count());
+        assertEquals(1, meterRegistry.get("product.not.found").tag("resource", "lease").counter().count());
+    }
+
+    @Test
+    void testReservationConflictsAreCounted() {
+        handler.handleProductReservationConflictException(new ProductReservationConflictException("1"));
+        handler.handleProductReservationConflictException(new ProductReservationConflictException(List.of("1", "2")));
+
+        assertEquals(2, meterRegistry.get("product.reservation.conflicts").counter().count());
+    }
+}
@@ -0,0 +1,52 @@
+package com.artztall.product_service.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductIndexManagerTest {
+
+    @Test
+    void testDetectsCollectionScan() {
+        Document explain = explain(new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN")));
+
+        assertEquals("COLLSCAN", ProductIndexManager.slowStage(explain));
+    }
+
+    @Test
+    void testDetectsInMemorySort() {
+        Document explain = explain(new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "FETCH")
+                        .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "category_price"))));
+
+        assertEquals("SORT", ProductIndexManager.slowStage(explain));
+    }
+
+    @Test
+    void testDetectsCollectionScanInsideOrBranches() {
+        Document explain = explain(new Document("stage", "SUBPLAN")
+                .append("inputStage", new Document("stage", "OR")
+                        .append("inputStages", List.of(
+                                new Document("stage", "IXSCAN"),
+                                new Document("stage", "COLLSCAN")))));
+
+        assertEquals("COLLSCAN", ProductIndexManager.slowStage(explain));
+    }
+
+    @Test
+    void testIndexScanIsNotFlagged() {
+        Document explain = explain(new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "category_createdAt")));
+
+        assertNull(ProductIndexManager.slowStage(explain));
+    }
+
+    private static Document explain(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+}
@@ -0,0 +1,254 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductReservation;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the filters and updates the atomic writes send to Mongo, which is where their guarantees come from.
+ * The concurrency test runs them against a disposable MongoDB and only runs when one is given:
+ * <pre>
+ * mvn test -Dtest=ProductRepositoryCustomImplTest -Dbenchmark.mongodb.uri=mongodb://localhost:27017
+ * </pre>
+ */
+class ProductRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ProductRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        repository = new ProductRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void testLeaseStockOnlyMatchesAvailableProductsWithEnoughStock() {
+        Product product = new Product();
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Product.class))).thenReturn(product);
+
+        assertEquals(Optional.of(product), repository.leaseStock("1", "lease-1", 2, LocalDateTime.now()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Product.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("1", filter.get("id"));
+        // The guard: of two concurrent reservations of the last unit, the second no longer matches.
+        assertEquals(true, filter.get("isAvailable"));
+        assertEquals(new Document("$gte", 2), filter.get("stockQuantity"));
+        assertTrue(options.getValue().isReturnNew());
+        assertEquals(List.of("stockQuantity", "isAvailable", "updatedAt", "version", "reservations"),
+                setFields(update.getValue()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.mongodb.uri", matches = ".+")
+    void testConcurrentLeasesOfTheLastUnitHaveExactlyOneWinner() throws Exception {
+        int threads = 16;
+        try (MongoClient client = MongoClients.create(System.getProperty("benchmark.mongodb.uri"))) {
+            MongoTemplate template = new MongoTemplate(client, "product_service_test");
+            try {
+                ProductRepositoryCustomImpl mongoRepository = new ProductRepositoryCustomImpl(template);
+                Product product = new Product();
+                product.setName("Last unit");
+                product.setStockQuantity(1);
+                product.setAvailable(true);
+                template.insert(product);
+                LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Optional<Product>>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return mongoRepository.leaseStock(product.getId(), UUID.randomUUID().toString(), 1, expiresAt);
+                    }));
+                }
+                start.countDown();
+                int winners = 0;
+                for (Future<Optional<Product>> future : futures) {
+                    winners += future.get(10, TimeUnit.SECONDS).isPresent() ? 1 : 0;
+                }
+                executor.shutdown();
+
+                Product stored = template.findById(product.getId(), Product.class);
+                assertEquals(1, winners);
+                assertEquals(0, stored.getStockQuantity());
+                assertFalse(stored.isAvailable());
+                assertEquals(1, stored.getReservations().size());
+            } finally {
+                template.getDb().drop();
+            }
+        }
+    }
+
+    @Test
+    void testLeaseStockIsEmptyWhenTheGuardDoesNotMatch() {
+        assertEquals(Optional.empty(), repository.leaseStock("1", "lease-1", 1, LocalDateTime.now()));
+    }
+
+    @Test
+    void testReleaseLeaseOnlyMatchesProductsCarryingTheLease() {
+        assertEquals(Optional.empty(), repository.releaseLease("1", "lease-1"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("1", filter.get("id"));
+        assertEquals("lease-1", filter.get("reservations.reservationId"));
+        // Units go back and the entry is dropped in the same update, so a second release matches nothing.
+        assertTrue(setFields(update.getValue()).containsAll(List.of("stockQuantity", "reservations")));
+    }
+
+    @Test
+    void testBatchReservationEntriesExpire() {
+        BulkOperations operations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(operations);
+        when(operations.execute()).thenReturn(BulkWriteResult.acknowledged(1, 1, 0, 1, List.of(), List.of()));
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertTrue(repository.reserveAll(List.of("1"), "reservation-1", expiresAt));
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(operations).updateOne(any(Query.class), update.capture());
+        Document reservations = ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT)
+                .get(4).get("$set", Document.class);
+        Document entry = (Document) ((List<?>) reservations.get("reservations", Document.class)
+                .getList("$concatArrays", Object.class).get(1)).get(0);
+        assertEquals("reservation-1", entry.get("reservationId"));
+        assertNotNull(entry.get("expiresAt"));
+    }
+
+    @Test
+    void testConfirmAllConfirmsNothingWhenAHoldLapsesMidBatch() {
+        ProductReservation hold = new ProductReservation();
+        hold.setReservationId("reservation-1");
+        hold.setQuantity(1);
+        Product first = new Product();
+        first.setId("1");
+        first.setReservations(List.of(hold));
+        // Product 1 still holds the entry; product 2's hold expires after product 1 was confirmed.
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), eq(Product.class)))
+                .thenAnswer(invocation -> "1".equals(((Query) invocation.getArgument(0)).getQueryObject().get("id"))
+                        ? first : null);
+
+        assertFalse(repository.confirmAll(List.of("1", "2"), "reservation-1"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Product.class));
+        assertEquals("1", query.getValue().getQueryObject().get("id"));
+        Document push = update.getValue().getUpdateObject().get("$push", Document.class);
+        assertEquals(hold, push.get("reservations"));
+    }
+
+    @Test
+    void testConfirmAllOnlyConfirmsUnexpiredHolds() {
+        ProductReservation hold = new ProductReservation();
+        hold.setReservationId("reservation-1");
+        Product product = new Product();
+        product.setReservations(List.of(hold));
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), eq(Product.class)))
+                .thenReturn(product);
+
+        assertTrue(repository.confirmAll(List.of("1"), "reservation-1"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(UpdateDefinition.class), eq(Product.class));
+        Document match = query.getValue().getQueryObject().get("reservations", Document.class)
+                .get("$elemMatch", Document.class);
+        assertEquals("reservation-1", match.get("reservationId"));
+        assertNotNull(match.get("expiresAt", Document.class).get("$gt"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Product.class));
+    }
+
+    /** The fields of a pipeline update, one per {@code $set} stage, in order. */
+    @Test
+    void testTakingStockOnlyChangesAvailabilityWhenItRunsOut() {
+        Document availability = setValue(ProductRepositoryCustomImpl.decrementStock(1, LocalDateTime.now()),
+                "isAvailable");
+
+        // Above zero the current flag is kept, so an admin's choice survives a reservation.
+        assertEquals(List.of(new Document("$gt", List.of("$stockQuantity", 0)), "$isAvailable", false),
+                availability.getList("$cond", Object.class));
+    }
+
+    @Test
+    void testReturningStockKeepsAdminDisabledProductsUnavailable() {
+        AggregationUpdate update = ProductRepositoryCustomImpl.returnStock(
+                ProductRepositoryCustomImpl.withReservationId("reservation-1"), LocalDateTime.now());
+
+        // Availability is decided on the old stock level, before the units go back.
+        assertEquals("isAvailable", setFields(update).get(0));
+        List<Object> availability = setValue(update, "isAvailable").getList("$cond", Object.class);
+        assertEquals(true, availability.get(1));
+        assertEquals("$isAvailable", availability.get(2));
+    }
+
+    static Document setValue(UpdateDefinition update, String field) {
+        return ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT).stream()
+                .map(stage -> stage.get("$set", Document.class))
+                .filter(set -> set.containsKey(field))
+                .map(set -> set.get(field, Document.class))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static List<String> setFields(UpdateDefinition update) {
+        return ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT).stream()
+                .map(stage -> stage.get("$set", Document.class).keySet().iterator().next())
+                .toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.artztall.product_service.repository;
+
+import com.artztall.product_service.config.SlowQueryProperties;
+import com.artztall.product_service.dto.SlowQueryResponse;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryRecorderTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    private static final String FIND_BY_CATEGORY = "{find: 'products', filter: {category: 'painting',"
+            + " price: {$gte: 100.0}}, sort: {price: 1}, lsid: {id: 1}, $db: 'artztall_products_db'}";
+    private static final String TWO_RESULTS = "{ok: 1, cursor: {id: 0, firstBatch: [{_id: 'a'}, {_id: 'b'}]}}";
+
+    private int requestId;
+
+    @Test
+    void testRecordsSlowCommandShapeAndCaller() {
+        SlowQueryRecorder recorder = recorder(3);
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 250);
+                    return null;
+                });
+
+        repository.findByCategory("painting", null);
+
+        SlowQueryResponse query = recorder.getSlowQueries().get(0);
+        assertEquals("find", query.getCommandName());
+        assertEquals("products", query.getCollection());
+        assertEquals("ProductRepository.findByCategory", query.getRepositoryMethod());
+        assertEquals(BsonDocument.parse("{filter: {category: '?', price: {$gte: '?'}}, sort: {price: 1}}"),
+                BsonDocument.parse(query.getShape()));
+        assertEquals(250, query.getDurationMillis());
+        assertEquals(2, query.getDocumentsReturned());
+    }
+
+    @Test
+    void testIgnoresFastAndUnwatchedCommands() {
+        SlowQueryRecorder recorder = recorder(3);
+
+        run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 10);
+        run(recorder, "{insert: 'products', documents: []}", "{ok: 1, n: 0}", 500);
+
+        assertTrue(recorder.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    void testKeepsOnlyTheMostRecentCommands() {
+        SlowQueryRecorder recorder = recorder(2);
+
+        run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 900);
+        run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 200);
+        run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 300);
+
+        List<SlowQueryResponse> queries = recorder.getSlowQueries();
+        assertEquals(List.of(300L, 200L), queries.stream().map(SlowQueryResponse::getDurationMillis).toList());
+        assertTrue(recorder.explain(1, (database, command) -> new Document()).isEmpty());
+    }
+
+    @Test
+    void testExplainRecordsExaminedDocumentsAndPlan() {
+        SlowQueryRecorder recorder = recorder(3);
+        run(recorder, FIND_BY_CATEGORY, TWO_RESULTS, 250);
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SORT").append("inputStage", new Document("stage", "COLLSCAN"))))
+                .append("executionStats", new Document("nReturned", 2)
+                        .append("totalKeysExamined", 0)
+                        .append("totalDocsExamined", 5000));
+
+        SlowQueryResponse query = recorder.explain(1, (database, command) -> {
+            assertEquals("artztall_products_db", database);
+            assertEquals("executionStats", command.get("verbosity"));
+            BsonDocument explained = (BsonDocument) command.get("explain");
+            assertFalse(explained.containsKey("lsid"));
+            assertEquals("painting", explained.getDocument("filter").getString("category").getValue());
+            return explain;
+        }).orElseThrow();
+
+        assertEquals(5000, query.getDocumentsExamined());
+        assertEquals(0, query.getKeysExamined());
+        assertEquals("SORT <- COLLSCAN", query.getWinningPlan());
+        assertTrue(query.getCollectionScan());
+    }
+
+    @Test
+    void testCopiesOnlyTheFirstStatementOfABulkUpdate() {
+        BsonDocument copy = SlowQueryRecorder.copyQuery(BsonDocument.parse(
+                "{update: 'products', updates: [{q: {_id: 'a'}}, {q: {_id: 'b'}}], $db: 'db'}"));
+
+        assertEquals(1, copy.getArray("updates").size());
+        assertNull(copy.get("$db"));
+        assertEquals(BsonDocument.parse("{q: {_id: '?'}}"), SlowQueryRecorder.shapeOf(copy));
+    }
+
+    private static SlowQueryRecorder recorder(int capacity) {
+        SlowQueryProperties properties = new SlowQueryProperties();
+        properties.setThreshold(Duration.ofMillis(100));
+        properties.setCapacity(capacity);
+        return new SlowQueryRecorder(properties);
+    }
+
+    private void run(SlowQueryRecorder recorder, String command, String response, long millis) {
+        BsonDocument document = BsonDocument.parse(command);
+        String commandName = document.getFirstKey();
+        int id = ++requestId;
+        recorder.commandStarted(new CommandStartedEvent(null, id, id, CONNECTION, "artztall_products_db",
+                commandName, document));
+        recorder.commandSucceeded(new CommandSucceededEvent(null, id, id, CONNECTION, "artztall_products_db",
+                commandName, BsonDocument.parse(response), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
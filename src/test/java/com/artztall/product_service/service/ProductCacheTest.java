@@ -0,0 +1,82 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final ProductCache productCache = new ProductCache(new ProductCacheProperties());
+
+    @Test
+    void testConcurrentReadersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ProductResponse> first = CompletableFuture.supplyAsync(() -> productCache.get("1", id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return response(id);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ProductResponse> second = CompletableFuture.supplyAsync(() -> productCache.get("1", id -> {
+            loads.incrementAndGet();
+            return response(id);
+        }));
+        release.countDown();
+
+        assertEquals("1", first.get(5, TimeUnit.SECONDS).getId());
+        assertEquals("1", second.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidationDuringLoadKeepsResultOutOfCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ProductResponse> reader = CompletableFuture.supplyAsync(() -> productCache.get("1", id -> {
+            loading.countDown();
+            await(release);
+            return response(id);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        productCache.invalidate("1");
+        release.countDown();
+
+        assertNotNull(reader.get(5, TimeUnit.SECONDS));
+        assertNull(productCache.getIfPresent("1"));
+    }
+
+    @Test
+    void testFailedLoadIsRethrownAndNotCached() {
+        assertThrows(IllegalStateException.class, () -> productCache.get("1", id -> {
+            throw new IllegalStateException("down");
+        }));
+
+        assertEquals("1", productCache.get("1", ProductCacheTest::response).getId());
+    }
+
+    private static ProductResponse response(String id) {
+        ProductResponse response = new ProductResponse();
+        response.setId(id);
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
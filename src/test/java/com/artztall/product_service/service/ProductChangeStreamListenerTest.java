@@ -0,0 +1,144 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.model.Product;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductChangeStreamListenerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductStatsView statsView;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    private ProductChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        listener = new ProductChangeStreamListener(mongoTemplate, productCache, statsView, suggestIndex,
+                Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testUpdateEvictsChangedProduct() {
+        ObjectId id = new ObjectId();
+        listener.onChange(change(OperationType.UPDATE, new BsonDocument("_id", new BsonObjectId(id))));
+
+        verify(productCache).invalidate(id.toHexString());
+    }
+
+    @Test
+    void testDeleteRemovesProductFromViews() {
+        ObjectId id = new ObjectId();
+        listener.onChange(change(OperationType.DELETE, new BsonDocument("_id", new BsonObjectId(id))));
+
+        verify(productCache).invalidate(id.toHexString());
+        verify(statsView).remove(id.toHexString());
+        verify(suggestIndex).remove(id.toHexString());
+    }
+
+    @Test
+    void testDropEvictsEverything() {
+        listener.onChange(change(OperationType.DROP, null));
+
+        verify(productCache).invalidateAll();
+        verify(statsView).invalidate();
+        verify(suggestIndex).invalidate();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidateReopensTheStreamWithoutResuming() throws InterruptedException {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> invalidated = mock(MongoChangeStreamCursor.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> reopened = mock(MongoChangeStreamCursor.class);
+        when(mongoTemplate.getCollectionName(Product.class)).thenReturn("products");
+        when(mongoTemplate.getCollection("products")).thenReturn(collection);
+        when(collection.watch()).thenReturn(stream);
+        when(stream.fullDocument(any(FullDocument.class))).thenReturn(stream);
+        when(stream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(stream);
+        when(stream.resumeAfter(any(BsonDocument.class))).thenReturn(stream);
+        when(stream.cursor()).thenReturn(invalidated, reopened);
+        ChangeStreamDocument<Document> invalidate = change(OperationType.INVALIDATE, null);
+        when(invalidated.tryNext()).thenReturn(invalidate);
+        when(invalidated.getResumeToken()).thenReturn(new BsonDocument("_data", new BsonString("invalidate")));
+
+        listener.start();
+        try {
+            verify(stream, timeout(2_000).times(2)).cursor();
+        } finally {
+            listener.stop();
+        }
+
+        // Resuming after the invalidate token would be rejected on every retry.
+        verify(stream, never()).resumeAfter(any(BsonDocument.class));
+        verify(statsView).invalidate();
+        verify(suggestIndex).invalidate();
+    }
+
+    @Test
+    void testEventWithoutDocumentKeyIsIgnored() {
+        listener.onChange(change(OperationType.OTHER, null));
+
+        verifyNoInteractions(productCache);
+    }
+
+    @Test
+    void testUnreadableEventDropsCacheAndViewsInsteadOfFailing() {
+        ObjectId id = new ObjectId();
+        ChangeStreamDocument<Document> change = change(OperationType.UPDATE,
+                new BsonDocument("_id", new BsonObjectId(id)));
+        when(change.getFullDocument()).thenReturn(new Document("_id", id));
+        when(mongoTemplate.getConverter()).thenThrow(new IllegalStateException("unreadable"));
+
+        listener.process(change);
+
+        verify(productCache).invalidateAll();
+        verify(statsView).invalidate();
+        verify(suggestIndex).invalidate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(OperationType operationType, BsonDocument documentKey) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(operationType);
+        when(change.getDocumentKey()).thenReturn(documentKey);
+        return change;
+    }
+}
@@ -0,0 +1,75 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ProductExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new ProductExportService(productRepository, new ProductMapper(), objectMapper, 2);
+    }
+
+    @Test
+    void exportNdjson_WritesOneLinePerProductAndClosesTheCursor() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepository.streamUpdatedSince(since))
+                .thenReturn(Stream.of(product("1"), product("2"), product("3")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportNdjson(since, out);
+
+        assertEquals(3, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("1", first.get("id").asText());
+        assertEquals("2024-02-01T10:00:00", first.get("updatedAt").asText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportNdjson_WritesNothingForAnEmptyCatalog() throws Exception {
+        when(productRepository.streamUpdatedSince(null)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportNdjson(null, out));
+        assertEquals(0, out.size());
+    }
+
+    private static Product product(String id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 10, 0));
+        return product;
+    }
+}
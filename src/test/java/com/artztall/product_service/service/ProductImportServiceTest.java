@@ -0,0 +1,101 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.ProductImportResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStatsView statsView;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new ProductImportService(productRepository, new ProductMapper(), statsView, suggestIndex,
+                new ObjectMapper(), 2);
+        when(productRepository.insertUnordered(anyList())).thenReturn(Map.of());
+    }
+
+    @Test
+    void testImportNdjsonReportsBadLinesAndInsertsTheRestInBatches() throws Exception {
+        ProductImportResponse response = importService.importNdjson(body("""
+                {"name":"One","price":10}
+                {"name":"Two","price":20,"stockQuantity":3}
+
+                {not json}
+                {"price":5}
+                {"name":"Three","price":30}
+                """), "artist1");
+
+        assertEquals(5, response.getTotal());
+        assertEquals(3, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(4L, 5L), response.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("name is required", response.getErrors().get(1).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> batches = ArgumentCaptor.forClass(List.class);
+        verify(productRepository, times(2)).insertUnordered(batches.capture());
+        Product first = batches.getAllValues().get(0).get(0);
+        assertEquals("artist1", first.getArtistId());
+        assertNotNull(first.getId());
+        assertEquals(1, first.getStockQuantity());
+    }
+
+    @Test
+    void testImportNdjsonCountsDocumentsRejectedByTheDatabase() throws Exception {
+        when(productRepository.insertUnordered(anyList())).thenReturn(Map.of(1, "duplicate key"));
+
+        ProductImportResponse response = importService.importNdjson(body("""
+                {"name":"One","price":10}
+                {"name":"Two","price":20}
+                """), "artist1");
+
+        assertEquals(1, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(2L, response.getErrors().get(0).getLine());
+        assertEquals("duplicate key", response.getErrors().get(0).getMessage());
+        verify(statsView, times(1)).apply(argThat(product -> "One".equals(product.getName())));
+        verify(suggestIndex, times(1)).apply(any(Product.class));
+    }
+
+    @Test
+    void testImportJsonArrayImportsEachElement() throws Exception {
+        ProductImportResponse response = importService.importJsonArray(body("""
+                [{"name":"One","price":10}, {"name":"Two","price":-1}, {"name":"Three","price":30}]
+                """), "artist1");
+
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getImported());
+        assertEquals(2L, response.getErrors().get(0).getLine());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
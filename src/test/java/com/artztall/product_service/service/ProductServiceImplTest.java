@@ -1,24 +1,62 @@
 package com.artztall.product_service.service;
 
+import com.artztall.product_service.config.ProductBrowseProperties;
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.dto.BulkReservationResponse;
+import com.artztall.product_service.dto.CursorPageResponse;
+import com.artztall.product_service.dto.ProductBrowseFilter;
+import com.artztall.product_service.dto.ProductBrowseResponse;
 import com.artztall.product_service.dto.ProductDimensionsDTO;
+import com.artztall.product_service.dto.ProductBatchResponse;
+import com.artztall.product_service.dto.ProductFields;
+import com.artztall.product_service.dto.ProductPatchRequest;
 import com.artztall.product_service.dto.ProductRequest;
 import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.exception.ProductNotFoundException;
+import com.artztall.product_service.exception.ProductPreconditionFailedException;
+import com.artztall.product_service.exception.ProductReservationConflictException;
+import com.artztall.product_service.exception.ReservationLeaseNotFoundException;
 import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductReservation;
+import com.artztall.product_service.repository.ProductFacetResult;
 import com.artztall.product_service.repository.ProductRepository;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +66,24 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ReservationProperties reservationProperties = new ReservationProperties();
+
+    @Spy
+    private ProductCache productCache = new ProductCache(new ProductCacheProperties());
+
+    @Spy
+    private ProductBrowseProperties browseProperties = new ProductBrowseProperties();
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @Mock
+    private ProductStatsView statsView;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -50,18 +106,59 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    void testCreateProductDefaultsToSingleUnitStock() {
+        ProductRequest request = createProductRequest();
+        request.setStockQuantity(null);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProductResponse response = productService.createProduct(request, "artist123");
+
+        assertEquals(1, response.getStockQuantity());
+        assertTrue(response.isAvailable());
+    }
+
     @Test
     void testUpdateProduct() {
         ProductRequest request = createProductRequest();
         Product existingProduct = createProduct();
-        when(productRepository.findById("1")).thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
+        when(productRepository.updateFields(eq("1"), eq(null), anyMap())).thenReturn(Optional.of(existingProduct));
 
-        ProductResponse response = productService.updateProduct("1", request);
+        ProductResponse response = productService.updateProduct("1", request, null);
 
         assertNotNull(response);
         assertEquals("Product 1", response.getName());
-        verify(productRepository, times(1)).save(existingProduct);
+        verify(productRepository).updateFields(eq("1"), eq(null), argThat(fields ->
+                fields.get("name").equals("Product 1") && fields.get("isAvailable").equals(true)));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void testUpdateProductWithStaleVersion() {
+        when(productRepository.updateFields(eq("1"), eq(3L), anyMap())).thenReturn(Optional.empty());
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        assertThrows(ProductPreconditionFailedException.class,
+                () -> productService.updateProduct("1", createProductRequest(), 3L));
+    }
+
+    @Test
+    void testUpdateProductNotFound() {
+        when(productRepository.updateFields(eq("1"), eq(null), anyMap())).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.updateProduct("1", createProductRequest(), null));
+    }
+
+    @Test
+    void testPatchProductSetsOnlyPresentFields() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setPrice(150.0);
+        when(productRepository.updateFields(eq("1"), eq(2L), anyMap())).thenReturn(Optional.of(createProduct()));
+
+        productService.patchProduct("1", patch, 2L);
+
+        verify(productRepository).updateFields("1", 2L, Map.of("price", 150.0));
     }
 
     @Test
@@ -85,6 +182,37 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).findById("1");
     }
 
+    @Test
+    void testGetProductByIdIsCached() {
+        Product product = createProduct();
+        when(productRepository.findById("1")).thenReturn(Optional.of(product));
+
+        productService.getProductById("1");
+        productService.getProductById("1");
+
+        verify(productRepository, times(1)).findById("1");
+        assertEquals(1, productCache.stats().getHitCount());
+        assertEquals(1, productCache.stats().getMissCount());
+    }
+
+    @Test
+    void testReserveProductInvalidatesCachedProduct() {
+        Product product = createProduct();
+        when(productRepository.findById("1")).thenReturn(Optional.of(product));
+        productService.getProductById("1");
+
+        Product reserved = createProduct();
+        reserved.setStockQuantity(0);
+        reserved.setAvailable(false);
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(10), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> leased(reserved, invocation));
+        when(productRepository.findById("1")).thenReturn(Optional.of(reserved));
+        productService.reserveProduct("1", 10);
+
+        assertFalse(productService.getProductById("1").isAvailable());
+        verify(productRepository, times(2)).findById("1");
+    }
+
     @Test
     void testGetAllProducts() {
         Product product = createProduct();
@@ -92,50 +220,431 @@ class ProductServiceImplTest {
         Page<Product> page = new PageImpl<>(List.of(product));
         when(productRepository.findAll(pageable)).thenReturn(page);
 
-        Page<ProductResponse> responsePage = productService.getAllProducts(pageable);
+        Page<ProductResponse> responsePage = productService.getAllProducts(pageable, ProductFields.ALL);
 
         assertNotNull(responsePage);
         assertEquals(1, responsePage.getContent().size());
         verify(productRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void testGetProductsByCategoryWithSummaryFieldsProjects() {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Product 1");
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productRepository.findPage(any(), eq(pageable), any())).thenReturn(new PageImpl<>(List.of(product)));
+
+        Page<ProductResponse> responses = productService.getProductsByCategory("Category 1", pageable, ProductFields.SUMMARY);
+
+        assertEquals("Product 1", responses.getContent().get(0).getName());
+        verify(productRepository).findPage(any(), eq(pageable),
+                argThat(fields -> fields.contains("isAvailable") && !fields.contains("description")));
+        verify(productRepository, never()).findByCategory(any(), any());
+    }
+
+    @Test
+    void testGetProductFeed() {
+        Product first = createProduct();
+        Product second = createProduct();
+        second.setId("2");
+        Product third = createProduct();
+        third.setId("3");
+        when(productRepository.findAfter(null, 3)).thenReturn(List.of(first, second, third));
+
+        CursorPageResponse page = productService.getProductFeed(null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        when(productRepository.findAfter("2", 3)).thenReturn(List.of(third));
+
+        CursorPageResponse next = productService.getProductFeed(page.getNextCursor(), 2);
+
+        assertEquals(1, next.getContent().size());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetProductFeedRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductFeed("not base64!", 10));
+    }
+
     @Test
     void testGetProductsByArtist() {
         Product product = createProduct();
-        when(productRepository.findByArtistId("artist123")).thenReturn(List.of(product));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+        when(productRepository.findByArtistId("artist123", pageable)).thenReturn(new PageImpl<>(List.of(product)));
 
-        List<ProductResponse> responses = productService.getProductsByArtist("artist123");
+        Page<ProductResponse> responses = productService.getProductsByArtist("artist123", pageable, ProductFields.ALL);
 
         assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("Product 1", responses.get(0).getName());
-        verify(productRepository, times(1)).findByArtistId("artist123");
+        assertEquals(1, responses.getContent().size());
+        assertEquals("Product 1", responses.getContent().get(0).getName());
+        verify(productRepository, times(1)).findByArtistId("artist123", pageable);
     }
 
     @Test
     void testGetProductsByCategory() {
         Product product = createProduct();
-        when(productRepository.findByCategory("Category 1")).thenReturn(List.of(product));
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productRepository.findByCategory("Category 1", pageable)).thenReturn(new PageImpl<>(List.of(product)));
 
-        List<ProductResponse> responses = productService.getProductsByCategory("Category 1");
+        Page<ProductResponse> responses = productService.getProductsByCategory("Category 1", pageable, ProductFields.ALL);
 
         assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("Product 1", responses.get(0).getName());
-        verify(productRepository, times(1)).findByCategory("Category 1");
+        assertEquals(1, responses.getContent().size());
+        assertEquals("Product 1", responses.getContent().get(0).getName());
+        verify(productRepository, times(1)).findByCategory("Category 1", pageable);
+    }
+
+    @Test
+    void testBrowseProducts() {
+        browseProperties.setPriceBuckets(List.of(0.0, 100.0, 500.0));
+        ProductFacetResult result = new ProductFacetResult();
+        result.setProducts(List.of(createProduct()));
+        result.setTotal(7);
+        result.setCategories(Map.of("Category 1", 7L));
+        result.setMediums(Map.of("Oil", 5L));
+        result.setStyles(Map.of());
+        result.setPriceBuckets(Map.of(100.0, 6L, 500.0, 1L));
+        ProductBrowseFilter filter = new ProductBrowseFilter();
+        filter.setCategory("Category 1");
+        Pageable pageable = PageRequest.of(0, 1);
+        when(productRepository.browse(filter, pageable, List.of(0.0, 100.0, 500.0))).thenReturn(result);
+
+        ProductBrowseResponse response = productService.browseProducts(filter, pageable);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(7, response.getTotalElements());
+        assertEquals(7L, response.getCategories().get("Category 1"));
+        assertEquals(3, response.getPriceBuckets().size());
+        assertEquals(0, response.getPriceBuckets().get(0).getCount());
+        assertEquals(500.0, response.getPriceBuckets().get(1).getMaxPrice());
+        assertEquals(6, response.getPriceBuckets().get(1).getCount());
+        assertNull(response.getPriceBuckets().get(2).getMaxPrice());
+    }
+
+    @Test
+    void testSearchProducts() {
+        Product product = createProduct();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productRepository.findAllByOrderByScoreDesc(any(TextCriteria.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        Page<ProductResponse> responses = productService.searchProducts("abstract", pageable);
+
+        assertEquals(1, responses.getContent().size());
+        verify(productRepository, times(1)).findAllByOrderByScoreDesc(
+                eq(TextCriteria.forDefaultLanguage().matching("abstract")), eq(pageable));
     }
 
     @Test
     void testUpdateProductAvailability() {
         Product product = createProduct();
-        when(productRepository.findById("1")).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        product.setAvailable(false);
+        when(productRepository.updateFields("1", null, Map.of("isAvailable", false))).thenReturn(Optional.of(product));
 
         ProductResponse response = productService.updateProductAvailability("1", false);
 
         assertNotNull(response);
         assertFalse(response.isAvailable());
-        verify(productRepository, times(1)).save(product);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void testReserveProduct() {
+        Product product = createProduct();
+        product.setAvailable(false);
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> leased(product, invocation));
+
+        ReservationLeaseResponse response = productService.reserveProduct("1", 1);
+
+        assertNotNull(response.getLeaseId());
+        assertTrue(response.getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(14)));
+        assertFalse(response.getProduct().isAvailable());
+        verify(productRepository, never()).findById("1");
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void testReserveProductConflict() {
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        assertThrows(ProductReservationConflictException.class, () -> productService.reserveProduct("1", 1));
+    }
+
+    @Test
+    void testReserveProductNotFound() {
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById("1")).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.reserveProduct("1", 1));
+    }
+
+    @Test
+    void testReserveProductRejectsNonPositiveQuantity() {
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveProduct("1", 0));
+        verify(productRepository, never()).leaseStock(anyString(), anyString(), anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testReleaseProduct() {
+        Product product = createProduct();
+        when(productRepository.releaseLease("1", "reservation-1")).thenReturn(Optional.of(product));
+
+        ProductResponse response = productService.releaseProduct("1", "reservation-1");
+
+        assertTrue(response.isAvailable());
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void testReleaseProductWithoutMatchingReservation() {
+        when(productRepository.releaseLease("1", "reservation-1")).thenReturn(Optional.empty());
+
+        assertThrows(ReservationLeaseNotFoundException.class,
+                () -> productService.releaseProduct("1", "reservation-1"));
+        assertThrows(IllegalArgumentException.class, () -> productService.releaseProduct("1", " "));
+    }
+
+    @Test
+    void testConcurrentReservationsThatLoseTheRaceGetAConflict() throws Exception {
+        int threads = 16;
+        Product product = createProduct();
+        AtomicBoolean available = new AtomicBoolean(true);
+        // Stands in for the guarded findAndModify, whose single winner is checked against a real MongoDB in
+        // ProductRepositoryCustomImplTest. What is checked here is only that every losing caller sees a conflict.
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class))).thenAnswer(invocation ->
+                available.compareAndSet(true, false) ? leased(product, invocation) : Optional.empty());
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    productService.reserveProduct("1", 1);
+                    winners.incrementAndGet();
+                } catch (ProductReservationConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, winners.get());
+        assertEquals(threads - 1, conflicts.get());
+    }
+
+    @Test
+    void testReserveProducts() {
+        Product product = createProduct();
+        product.setAvailable(false);
+        when(productRepository.reserveAll(anyCollection(), anyString(), any(LocalDateTime.class))).thenReturn(true);
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+
+        BulkReservationResponse response = productService.reserveProducts(List.of("1", "1"));
+
+        assertNotNull(response.getReservationId());
+        assertTrue(response.getExpiresAt().isAfter(LocalDateTime.now()));
+        assertEquals(1, response.getProducts().size());
+        verify(productRepository, times(1)).reserveAll(eq(Set.of("1")), anyString(), eq(response.getExpiresAt()));
+    }
+
+    @Test
+    void testBatchReservationsRejectInvalidRequests() {
+        List<String> tooMany = IntStream.range(0, ProductServiceImpl.MAX_BATCH_SIZE + 1).mapToObj(String::valueOf).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveProducts(null));
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveProducts(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveProducts(tooMany));
+        assertThrows(IllegalArgumentException.class, () -> productService.releaseProducts(List.of("1"), null));
+        assertThrows(IllegalArgumentException.class, () -> productService.confirmProducts(null, "reservation-1"));
+        assertThrows(IllegalArgumentException.class, () -> productService.confirmProducts(List.of("1"), " "));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testConfirmProducts() {
+        Product product = createProduct();
+        when(productRepository.confirmAll(Set.of("1"), "reservation-1")).thenReturn(true);
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+
+        List<ProductResponse> responses = productService.confirmProducts(List.of("1"), "reservation-1");
+
+        assertEquals(1, responses.size());
+    }
+
+    @Test
+    void testConfirmProductsWithLapsedHoldConflicts() {
+        when(productRepository.confirmAll(Set.of("1", "2"), "reservation-1")).thenReturn(false);
+
+        assertThrows(ProductReservationConflictException.class,
+                () -> productService.confirmProducts(List.of("1", "2"), "reservation-1"));
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testReserveProductsConflict() {
+        when(productRepository.reserveAll(anyCollection(), anyString(), any(LocalDateTime.class))).thenReturn(false);
+
+        assertThrows(ProductReservationConflictException.class,
+                () -> productService.reserveProducts(List.of("1", "2")));
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testReleaseProducts() {
+        Product product = createProduct();
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+
+        List<ProductResponse> responses = productService.releaseProducts(List.of("1"), "reservation-1");
+
+        assertEquals(1, responses.size());
+        verify(productRepository, times(1)).releaseAll(anyCollection(), eq("reservation-1"));
+    }
+
+    @Test
+    void testLeaseProduct() {
+        Product product = createProduct();
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(2), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> leased(product, invocation));
+
+        ReservationLeaseResponse response = productService.leaseProduct("1", 2, null);
+
+        assertNotNull(response.getLeaseId());
+        assertEquals(2, response.getQuantity());
+        assertTrue(response.getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(14)));
+    }
+
+    @Test
+    void testLeaseProductCapsRequestedTtl() {
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        assertThrows(ProductReservationConflictException.class,
+                () -> productService.leaseProduct("1", 1, Duration.ofDays(1)));
+        verify(productRepository).leaseStock(eq("1"), anyString(), eq(1),
+                argThat(expiresAt -> expiresAt.isBefore(LocalDateTime.now().plusHours(2).plusMinutes(1))));
+    }
+
+    @Test
+    void testConfirmExpiredLease() {
+        when(productRepository.confirmLease("1", "lease-1")).thenReturn(Optional.empty());
+
+        assertThrows(ReservationLeaseNotFoundException.class, () -> productService.confirmLease("1", "lease-1"));
+    }
+
+    @Test
+    void testReleaseLease() {
+        Product product = createProduct();
+        when(productRepository.releaseLease("1", "lease-1")).thenReturn(Optional.of(product));
+
+        ProductResponse response = productService.releaseLease("1", "lease-1");
+
+        assertEquals(10, response.getStockQuantity());
+    }
+
+    @Test
+    void testWritesAreAppliedToViews() {
+        Product product = createProduct();
+        when(productRepository.leaseStock(eq("1"), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> leased(product, invocation));
+
+        productService.reserveProduct("1", 1);
+        productService.deleteProduct("1");
+
+        verify(statsView).apply(product);
+        verify(statsView).remove("1");
+        verify(suggestIndex).apply(product);
+        verify(suggestIndex).remove("1");
+    }
+
+    @Test
+    void testSuggestRejectsOutOfRangeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> productService.suggest("oil", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.suggest("oil", ProductServiceImpl.MAX_SUGGESTIONS + 1));
+        verifyNoInteractions(suggestIndex);
+    }
+
+    @Test
+    void testServiceCallsAreTimedPerMethod() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(productService);
+        proxyFactory.addAspect(new TimedAspect(meterRegistry));
+        ProductService timedService = proxyFactory.getProxy();
+        when(productRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> timedService.getProductById("missing"));
+
+        Timer timer = meterRegistry.get("product.service")
+                .tag("method", "getProductById")
+                .tag("exception", "ProductNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testGetProductVersionReadsOnlyTheVersion() {
+        Product product = new Product();
+        product.setId("1");
+        product.setVersion(4L);
+        when(productRepository.findVersionById("1")).thenReturn(Optional.of(product));
+        when(productRepository.findVersionById("2")).thenReturn(Optional.empty());
+
+        assertEquals(4, productService.getProductVersion("1").getVersion());
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductVersion("2"));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetProductsByIdsPreservesOrderAndReportsMissing() {
+        Product second = createProduct();
+        second.setId("2");
+        Product cached = createProduct();
+        cached.setId("3");
+        productCache.get("3", id -> productMapper.mapToProductResponse(cached));
+        when(productRepository.findAllById(any())).thenReturn(List.of(createProduct(), second));
+
+        ProductBatchResponse response = productService.getProductsByIds(List.of("2", "missing", "3", "1", "2"));
+
+        assertEquals(List.of("2", "3", "1"), response.getProducts().stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of("missing"), response.getMissingIds());
+        verify(productRepository).findAllById(argThat(ids -> !((Collection<?>) ids).contains("3")));
+    }
+
+    @Test
+    void testGetProductsByIdsRejectsOversizedBatch() {
+        List<String> ids = IntStream.range(0, ProductServiceImpl.MAX_BATCH_SIZE + 1).mapToObj(String::valueOf).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsByIds(ids));
+        verifyNoInteractions(productRepository);
+    }
+
+    /** Answers a {@code leaseStock} call with the product carrying the lease it asked for. */
+    private static Optional<Product> leased(Product product, InvocationOnMock invocation) {
+        ProductReservation lease = new ProductReservation();
+        lease.setReservationId(invocation.getArgument(1));
+        lease.setQuantity(invocation.getArgument(2));
+        lease.setExpiresAt(invocation.getArgument(3));
+        product.setReservations(List.of(lease));
+        return Optional.of(product);
     }
 
     private Product createProduct() {
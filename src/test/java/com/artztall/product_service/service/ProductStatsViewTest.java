@@ -0,0 +1,232 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.PriceBucketResponse;
+import com.artztall.product_service.dto.PriceHistogramResponse;
+import com.artztall.product_service.dto.ProductStatsResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductStatsViewTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductStatsView statsView;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        statsView = new ProductStatsView(productRepository);
+    }
+
+    @Test
+    void testLoadsStatsOnce() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 100, true, 0),
+                product("2", "artist-1", "painting", "Acrylic", 300, false, 0),
+                product("3", "artist-1", "sculpture", "Bronze", 800, true, 0),
+                product("4", "artist-2", "painting", "Oil", 50, true, 0)));
+
+        ProductStatsResponse artist = statsView.getArtistStats("artist-1");
+        ProductStatsResponse category = statsView.getCategoryStats("painting");
+
+        assertEquals(3, artist.getCount());
+        assertEquals(2, artist.getAvailableCount());
+        assertEquals(100, artist.getMinPrice());
+        assertEquals(800, artist.getMaxPrice());
+        assertEquals(400, artist.getAveragePrice());
+        assertEquals(List.of("painting", "sculpture"), List.copyOf(artist.getCategories().keySet()));
+        assertEquals(Map.of("Oil", 2L, "Acrylic", 1L), category.getMediums());
+        assertEquals(3, category.getCount());
+        verify(productRepository, times(1)).streamFields(ProductStatsView.FIELDS);
+    }
+
+    @Test
+    void testConcurrentReadsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Stream.of(product("1", "artist-1", "painting", "Oil", 100, true, 0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<ProductStatsResponse>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(executor.submit(() -> statsView.getCategoryStats("painting")));
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        for (Future<ProductStatsResponse> read : reads) {
+            assertEquals(1, read.get(5, TimeUnit.SECONDS).getCount());
+        }
+        executor.shutdown();
+
+        verify(productRepository, times(1)).streamFields(ProductStatsView.FIELDS);
+    }
+
+    @Test
+    void testAppliesUpdatesAndRemovals() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 100, true, 1),
+                product("2", "artist-1", "painting", "Oil", 900, true, 1)));
+        statsView.getArtistStats("artist-1");
+
+        statsView.apply(product("1", "artist-1", "print", "Ink", 200, false, 2));
+        statsView.remove("2");
+        statsView.apply(product("3", "artist-1", "print", "Ink", 400, true, 0));
+
+        ProductStatsResponse artist = statsView.getArtistStats("artist-1");
+        assertEquals(2, artist.getCount());
+        assertEquals(1, artist.getAvailableCount());
+        assertEquals(200, artist.getMinPrice());
+        assertEquals(400, artist.getMaxPrice());
+        assertEquals(Map.of("print", 2L), artist.getCategories());
+        assertEquals(0, statsView.getCategoryStats("painting").getCount());
+    }
+
+    @Test
+    void testIgnoresStaleVersions() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.empty());
+        statsView.apply(product("1", "artist-1", "painting", "Oil", 100, true, 5));
+
+        statsView.apply(product("1", "artist-1", "painting", "Oil", 700, true, 4));
+
+        assertEquals(100, statsView.getArtistStats("artist-1").getMaxPrice());
+    }
+
+    @Test
+    void testUnknownArtistHasNoProducts() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.empty());
+
+        ProductStatsResponse stats = statsView.getArtistStats("nobody");
+
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getMinPrice());
+        assertNull(stats.getAveragePrice());
+    }
+
+    @Test
+    void testInvalidateReloads() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.empty());
+        statsView.getArtistStats("artist-1");
+
+        statsView.invalidate();
+        statsView.getArtistStats("artist-1");
+
+        verify(productRepository, times(2)).streamFields(any());
+    }
+
+    @Test
+    void testCountsPricesInRangeAndBuckets() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 100, true, 0),
+                product("2", "artist-1", "painting", "Oil", 150, true, 0),
+                product("3", "artist-1", "painting", "Oil", 200, true, 0),
+                product("4", "artist-2", "painting", "Oil", 200, true, 0),
+                product("5", "artist-2", "sculpture", "Bronze", 150, true, 0)));
+
+        PriceHistogramResponse painting = statsView.getPriceHistogram("painting", 100.0, 200.0, 2);
+        PriceHistogramResponse all = statsView.getPriceHistogram(null, null, 149.0, 1);
+
+        assertEquals(4, painting.getCount());
+        assertEquals(List.of(1L, 3L), painting.getBuckets().stream().map(PriceBucketResponse::getCount).toList());
+        assertEquals(150, painting.getBuckets().get(1).getMinPrice());
+        assertEquals(1, all.getCount());
+        assertEquals(100, all.getMinPrice());
+    }
+
+    @Test
+    void testSingleBoundPastTheDataGivesAnEmptyHistogram() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 100, true, 0),
+                product("2", "artist-1", "painting", "Oil", 200, true, 0)));
+
+        PriceHistogramResponse aboveMax = statsView.getPriceHistogram("painting", 500.0, null, 3);
+        PriceHistogramResponse belowMin = statsView.getPriceHistogram("painting", null, 50.0, 3);
+
+        assertEquals(0, aboveMax.getCount());
+        assertTrue(aboveMax.getBuckets().isEmpty());
+        assertEquals(500, aboveMax.getMinPrice());
+        assertEquals(200, aboveMax.getMaxPrice());
+        assertEquals(0, belowMin.getCount());
+        assertTrue(belowMin.getBuckets().isEmpty());
+    }
+
+    @Test
+    void testHistogramFollowsWrites() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 100, true, 0),
+                product("2", "artist-1", "painting", "Oil", 100, true, 0)));
+        statsView.getPriceHistogram("painting", null, null, 0);
+
+        statsView.apply(product("1", "artist-1", "painting", "Oil", 500, true, 1));
+        statsView.remove("2");
+
+        PriceHistogramResponse painting = statsView.getPriceHistogram("painting", null, null, 3);
+        assertEquals(1, painting.getCount());
+        assertEquals(500, painting.getMinPrice());
+        assertEquals(1, painting.getBuckets().size());
+        assertEquals(0, statsView.getPriceHistogram("print", 0.0, 1000.0, 3).getCount());
+    }
+
+    @Test
+    void testLoadSortsPricesOnceAndKeepsWritesMadeDuringIt() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "artist-1", "painting", "Oil", 300, true, 0),
+                product("2", "artist-1", "painting", "Oil", 100, true, 0),
+                product("3", "artist-1", "painting", "Oil", 200, true, 0))
+                .peek(product -> {
+                    if ("3".equals(product.getId())) {
+                        // A write landing mid-load: product 1 is repriced from 300 to 50.
+                        statsView.apply(product("1", "artist-1", "painting", "Oil", 50, true, 1));
+                    }
+                }));
+
+        PriceHistogramResponse painting = statsView.getPriceHistogram("painting", null, null, 2);
+
+        assertEquals(3, painting.getCount());
+        assertEquals(50, painting.getMinPrice());
+        assertEquals(200, painting.getMaxPrice());
+        assertEquals(List.of(2L, 1L), painting.getBuckets().stream().map(PriceBucketResponse::getCount).toList());
+
+        statsView.apply(product("4", "artist-1", "painting", "Oil", 75, true, 0));
+        assertEquals(2, statsView.getPriceHistogram("painting", 60.0, 150.0, 1).getCount());
+    }
+
+    private static Product product(String id, String artistId, String category, String medium, double price,
+                                   boolean available, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setArtistId(artistId);
+        product.setCategory(category);
+        product.setMedium(medium);
+        product.setPrice(price);
+        product.setAvailable(available);
+        product.setVersion(version);
+        return product;
+    }
+}
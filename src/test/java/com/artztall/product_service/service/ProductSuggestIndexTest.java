@@ -0,0 +1,126 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.dto.SuggestionResponse;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        suggestIndex = new ProductSuggestIndex(productRepository);
+    }
+
+    @Test
+    void testSuggestsMostPopularFirst() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "Sunset", List.of("sea", "Seascape"), "painting", 0),
+                product("2", "Harbour", List.of("seascape", "sea"), "painting", 0),
+                product("3", "Sea Glass", List.of("seascape"), "print", 0)));
+
+        List<SuggestionResponse> suggestions = suggestIndex.suggest("SEA", 3);
+
+        assertEquals(List.of("Seascape", "sea", "Sea Glass"), texts(suggestions));
+        assertEquals(List.of("tag", "tag", "name"), suggestions.stream().map(SuggestionResponse::getType).toList());
+        assertEquals(3, suggestions.get(0).getCount());
+        verify(productRepository, times(1)).streamFields(ProductSuggestIndex.FIELDS);
+    }
+
+    @Test
+    void testMatchesEveryWordStartOnce() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "Lake  at lakeside", List.of(), "painting", 0)));
+
+        assertEquals(List.of("Lake  at lakeside"), texts(suggestIndex.suggest("lake", 10)));
+        assertEquals(List.of("Lake  at lakeside"), texts(suggestIndex.suggest("at l", 10)));
+        assertTrue(suggestIndex.suggest("side", 10).isEmpty());
+    }
+
+    @Test
+    void testFollowsUpdatesAndRemovals() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "Red", List.of("abstract"), "painting", 1),
+                product("2", "Blue", List.of("abstract"), "painting", 1)));
+        suggestIndex.suggest("a", 10);
+
+        suggestIndex.apply(product("1", "Red", List.of("minimal"), "painting", 2));
+        suggestIndex.remove("2");
+        suggestIndex.apply(product("1", "Red", List.of("abstract"), "painting", 1));
+
+        assertTrue(suggestIndex.suggest("abs", 10).isEmpty());
+        assertEquals(List.of("minimal"), texts(suggestIndex.suggest("min", 10)));
+        assertEquals(1, suggestIndex.suggest("paint", 10).get(0).getCount());
+    }
+
+    @Test
+    void testKeptTopOfALargePrefixFollowsWrites() {
+        int products = ProductSuggestIndex.CACHE_THRESHOLD + 100;
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> IntStream.range(0, products)
+                .mapToObj(i -> product(String.valueOf(i), "Piece " + i, i < 3 ? List.of("pop") : List.of(),
+                        "painting", 0)));
+        assertEquals(List.of("painting", "pop"), texts(suggestIndex.suggest("p", 2)));
+
+        for (int i = 0; i < 5; i++) {
+            suggestIndex.apply(product(String.valueOf(i), "Piece " + i, List.of("pottery"), "painting", 1));
+        }
+
+        assertEquals(List.of("painting", "pottery"), texts(suggestIndex.suggest("p", 2)));
+        assertEquals(5, suggestIndex.suggest("po", 1).get(0).getCount());
+        assertTrue(suggestIndex.suggest("pop", 1).isEmpty());
+    }
+
+    @Test
+    void testWriteThatKeepsTheTermsLeavesCountsAlone() {
+        when(productRepository.streamFields(any())).thenAnswer(invocation -> Stream.of(
+                product("1", "Red", List.of("abstract"), "painting", 1)));
+        suggestIndex.suggest("a", 10);
+
+        suggestIndex.apply(product("1", "Red", List.of("abstract"), "painting", 2));
+        suggestIndex.apply(product("1", "Red", List.of("minimal"), "painting", 1));
+
+        assertEquals(1, suggestIndex.suggest("abs", 10).get(0).getCount());
+        assertTrue(suggestIndex.suggest("min", 10).isEmpty());
+    }
+
+    @Test
+    void testBlankPrefixSuggestsNothing() {
+        assertTrue(suggestIndex.suggest("  ", 10).isEmpty());
+        verify(productRepository, never()).streamFields(any());
+    }
+
+    private static List<String> texts(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::getText).toList();
+    }
+
+    private static Product product(String id, String name, List<String> tags, String category, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setTags(tags);
+        product.setCategory(category);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,138 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ProductCacheProperties;
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.dto.ProductResponse;
+import com.artztall.product_service.dto.ReservationLeaseResponse;
+import com.artztall.product_service.exception.ProductNotFoundException;
+import com.artztall.product_service.exception.ProductReservationConflictException;
+import com.artztall.product_service.exception.ReservationLeaseNotFoundException;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.model.ProductReservation;
+import com.artztall.product_service.repository.ReactiveProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveProductServiceTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(new ProductCacheProperties());
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @Mock
+    private ProductStatsView statsView;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    @Spy
+    private ReservationProperties reservationProperties = new ReservationProperties();
+
+    @InjectMocks
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetProductsByCategoryCombinesContentAndCount() {
+        Pageable pageable = PageRequest.of(1, 2);
+        when(productRepository.findByCategory("Art", pageable)).thenReturn(Flux.just(product(3), product(1)));
+        when(productRepository.countByCategory("Art")).thenReturn(Mono.just(5L));
+
+        Page<ProductResponse> page = productService.getProductsByCategory("Art", pageable).block();
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    void testGetProductByIdNotFound() {
+        when(productRepository.findById("1")).thenReturn(Mono.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById("1").block());
+    }
+
+    @Test
+    void testGetProductByIdServesCacheHitWithoutQuery() {
+        productCache.get("1", id -> productMapper.mapToProductResponse(product(1)));
+
+        assertEquals("1", productService.getProductById("1").block().getId());
+        verify(productRepository, never()).findById("1");
+    }
+
+    @Test
+    void testReserveProductEvictsCache() {
+        productCache.get("1", id -> productMapper.mapToProductResponse(product(3)));
+        when(productRepository.reserveStock(eq("1"), anyString(), eq(2), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    ProductReservation reservation = new ProductReservation();
+                    reservation.setReservationId(invocation.getArgument(1));
+                    reservation.setQuantity(2);
+                    Product product = product(1);
+                    product.setReservations(List.of(reservation));
+                    return Mono.just(product);
+                });
+
+        ReservationLeaseResponse response = productService.reserveProduct("1", 2).block();
+
+        assertEquals(2, response.getQuantity());
+        assertEquals(1, response.getProduct().getStockQuantity());
+        assertNull(productCache.getIfPresent("1"));
+        verify(statsView).apply(any(Product.class));
+        verify(suggestIndex).apply(any(Product.class));
+    }
+
+    @Test
+    void testReserveProductConflictAndNotFound() {
+        when(productRepository.reserveStock(anyString(), anyString(), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+        when(productRepository.existsById("1")).thenReturn(Mono.just(true));
+        when(productRepository.existsById("2")).thenReturn(Mono.just(false));
+
+        assertThrows(ProductReservationConflictException.class, () -> productService.reserveProduct("1", 1).block());
+        assertThrows(ProductNotFoundException.class, () -> productService.reserveProduct("2", 1).block());
+    }
+
+    @Test
+    void testReleaseProductRequiresMatchingReservation() {
+        assertThrows(IllegalArgumentException.class, () -> productService.releaseProduct("1", null).block());
+        verifyNoInteractions(productRepository);
+
+        when(productRepository.releaseStock("1", "reservation-1")).thenReturn(Mono.empty());
+        assertThrows(ReservationLeaseNotFoundException.class,
+                () -> productService.releaseProduct("1", "reservation-1").block());
+    }
+
+    private static Product product(int stock) {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Product");
+        product.setStockQuantity(stock);
+        product.setAvailable(stock > 0);
+        return product;
+    }
+}
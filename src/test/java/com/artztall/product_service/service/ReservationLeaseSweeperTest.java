@@ -0,0 +1,80 @@
+package com.artztall.product_service.service;
+
+import com.artztall.product_service.config.ReservationProperties;
+import com.artztall.product_service.model.Product;
+import com.artztall.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationLeaseSweeperTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductStatsView statsView;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    @Spy
+    private ReservationProperties reservationProperties = new ReservationProperties();
+
+    @InjectMocks
+    private ReservationLeaseSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reservationProperties.setSweeperBatchSize(2);
+    }
+
+    @Test
+    void testSweepsInBatchesUntilAPartialBatch() {
+        when(productRepository.findIdsWithExpiredLeases(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of("1", "2"))
+                .thenReturn(List.of("3"));
+        when(productRepository.releaseExpiredLeases(anyList(), any(LocalDateTime.class))).thenReturn(2L, 1L);
+        Product released = new Product();
+        released.setId("3");
+        when(productRepository.findAllById(List.of("3"))).thenReturn(List.of(released));
+
+        sweeper.releaseExpiredLeases();
+
+        verify(productRepository, times(2)).findIdsWithExpiredLeases(any(LocalDateTime.class), eq(2));
+        verify(productRepository).releaseExpiredLeases(eq(List.of("1", "2")), any(LocalDateTime.class));
+        verify(productRepository).releaseExpiredLeases(eq(List.of("3")), any(LocalDateTime.class));
+        verify(productCache).invalidateAll(List.of("1", "2"));
+        verify(productCache).invalidateAll(List.of("3"));
+        verify(statsView).apply(released);
+        verify(suggestIndex).apply(released);
+    }
+
+    @Test
+    void testSweepWithNothingExpired() {
+        when(productRepository.findIdsWithExpiredLeases(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        sweeper.releaseExpiredLeases();
+
+        verify(productRepository, times(1)).findIdsWithExpiredLeases(any(LocalDateTime.class), eq(2));
+        verify(productRepository, never()).findAllById(anyList());
+    }
+}